@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl.benchmarks;
+
+import javafxpert.tictactoerl.TicTacToeBoard;
+import javafxpert.tictactoerl.TicTacToePositionTable;
+import javafxpert.tictactoerl.TicTacToeState;
+
+import java.util.Random;
+
+/**
+ * Reproducible sets of game boards, reached by random play, on which the benchmarks operate
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+final class BenchmarkBoards {
+  /**
+   * Number of boards in each set; a power of two, so that benchmarks can cycle through them with a mask
+   */
+  static final int NUM_BOARDS = 1024;
+
+  private BenchmarkBoards() {
+  }
+
+  /**
+   * @return States reached by random play from the empty board, including finished games
+   */
+  static TicTacToeState[] randomStates(long seed) {
+    Random rand = new Random(seed);
+    TicTacToeState[] states = new TicTacToeState[NUM_BOARDS];
+    for (int i = 0; i < NUM_BOARDS; i++) {
+      int xMask = 0;
+      int oMask = 0;
+      int numMoves = rand.nextInt(TicTacToeState.NUM_CELLS + 1);
+      for (int move = 0; move < numMoves; move++) {
+        int index = TicTacToeBoard.index(xMask, oMask);
+        if (TicTacToePositionTable.status(index) != TicTacToeBoard.STATUS_IN_PROGRESS) {
+          break;
+        }
+        int emptyMask = TicTacToePositionTable.emptyMask(index);
+        int cellBit = 1 << TicTacToeBoard.selectCell(emptyMask, rand.nextInt(Integer.bitCount(emptyMask)));
+        if (move % 2 == 0) {
+          xMask |= cellBit;
+        }
+        else {
+          oMask |= cellBit;
+        }
+      }
+      states[i] = new TicTacToeState(xMask, oMask, TicTacToeBoard.evalStatus(xMask, oMask));
+    }
+    return states;
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl.benchmarks;
+
+import burlap.mdp.singleagent.environment.EnvironmentOutcome;
+import javafxpert.tictactoerl.MoveAction;
+import javafxpert.tictactoerl.TicTacToeEnv;
+import javafxpert.tictactoerl.TicTacToeState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of stepping and resetting TicTacToeEnv.  Each executeAction() plays the first empty
+ * cell, and the environment is reset whenever a game finishes, so the benchmark cycles
+ * through whole games against the environment's default strategy.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EnvironmentBenchmark {
+  private TicTacToeEnv env;
+
+  private MoveAction[] moveActions;
+
+  @Setup
+  public void setup() {
+    env = new TicTacToeEnv();
+    moveActions = new MoveAction[TicTacToeState.NUM_CELLS];
+    for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+      moveActions[cell] = MoveAction.forCell(cell);
+    }
+  }
+
+  @Benchmark
+  public EnvironmentOutcome executeAction() {
+    if (env.isInTerminalState()) {
+      env.resetEnvironment();
+    }
+    int emptyMask = ((TicTacToeState)env.currentObservation()).emptyMask();
+    return env.executeAction(moveActions[Integer.numberOfTrailingZeros(emptyMask)]);
+  }
+
+  @Benchmark
+  public Object resetEnvironment() {
+    env.resetEnvironment();
+    return env.currentObservation();
+  }
+}
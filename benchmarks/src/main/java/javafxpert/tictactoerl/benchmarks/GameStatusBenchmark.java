@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl.benchmarks;
+
+import javafxpert.tictactoerl.TicTacToeBoard;
+import javafxpert.tictactoerl.TicTacToePositionTable;
+import javafxpert.tictactoerl.TicTacToeState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of evaluating the game status of a board, as the environments' evalGameStatus()
+ * does with a TicTacToePositionTable lookup, compared with evaluating the line masks
+ * directly and with the status string of a state.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStatusBenchmark {
+  private TicTacToeState[] states;
+
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    states = BenchmarkBoards.randomStates(1);
+  }
+
+  private TicTacToeState nextState() {
+    next = (next + 1) & (BenchmarkBoards.NUM_BOARDS - 1);
+    return states[next];
+  }
+
+  @Benchmark
+  public int positionTableStatus() {
+    return TicTacToePositionTable.status(nextState().boardIndex());
+  }
+
+  @Benchmark
+  public int lineMaskStatus() {
+    TicTacToeState state = nextState();
+    return TicTacToeBoard.evalStatus(state.xMask(), state.oMask());
+  }
+
+  @Benchmark
+  public Object statusString() {
+    return nextState().get(TicTacToeState.VAR_GAME_STATUS);
+  }
+}
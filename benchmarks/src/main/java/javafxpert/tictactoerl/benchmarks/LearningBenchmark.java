@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl.benchmarks;
+
+import burlap.behavior.singleagent.Episode;
+import burlap.behavior.singleagent.learning.LearningAgent;
+import burlap.behavior.singleagent.learning.tdmethods.QLearning;
+import javafxpert.tictactoerl.TicTacToeDenseQLearning;
+import javafxpert.tictactoerl.TicTacToeEnv;
+import javafxpert.tictactoerl.TicTacToeHashableStateFactory;
+import javafxpert.tictactoerl.TicTacToeWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end learning throughput, in episodes per second, of BURLAP's QLearning (as used
+ * by TicTacToeQLearning) and of TicTacToeDenseQLearning.  The learners keep learning
+ * across iterations, so the measurements settle once their policies have converged.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LearningBenchmark {
+  @Param({"QLEARNING", "DENSE", "DENSE_SYMMETRY"})
+  public String learner;
+
+  private LearningAgent agent;
+
+  private TicTacToeEnv env;
+
+  @Setup
+  public void setup() {
+    if (learner.equals("QLEARNING")) {
+      agent = new QLearning(new TicTacToeWorld().generateDomain(), 0.90, new TicTacToeHashableStateFactory(), 0.0, 1.0);
+    }
+    else {
+      TicTacToeDenseQLearning denseAgent = new TicTacToeDenseQLearning(0.90, 0.0, 1.0);
+      denseAgent.setUseSymmetry(learner.equals("DENSE_SYMMETRY"));
+      agent = denseAgent;
+    }
+    env = new TicTacToeEnv();
+  }
+
+  @Benchmark
+  public Episode runLearningEpisode() {
+    Episode episode = agent.runLearningEpisode(env);
+    env.resetEnvironment();
+    return episode;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl.benchmarks;
+
+import burlap.behavior.policy.EpsilonGreedy;
+import burlap.behavior.singleagent.learning.tdmethods.QLearning;
+import burlap.mdp.core.action.Action;
+import javafxpert.tictactoerl.TicTacToeBoard;
+import javafxpert.tictactoerl.TicTacToeEnv;
+import javafxpert.tictactoerl.TicTacToeFrozenPolicy;
+import javafxpert.tictactoerl.TicTacToeHashableStateFactory;
+import javafxpert.tictactoerl.TicTacToeState;
+import javafxpert.tictactoerl.TicTacToeWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of choosing a move with a trained agent: through an EpsilonGreedy policy of the live
+ * QLearning agent, and through a TicTacToeFrozenPolicy compiled from it.  Sample mode
+ * reports percentiles, including p99.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PolicyBenchmark {
+  private EpsilonGreedy greedyPolicy;
+
+  private TicTacToeFrozenPolicy frozenPolicy;
+
+  /**
+   * States, with the game in progress, from which moves are chosen
+   */
+  private TicTacToeState[] states;
+
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    QLearning agent = new QLearning(new TicTacToeWorld().generateDomain(), 0.90, new TicTacToeHashableStateFactory(), 0.0, 1.0);
+    TicTacToeEnv env = new TicTacToeEnv();
+    for (int i = 0; i < 5000; i++) {
+      agent.runLearningEpisode(env);
+      env.resetEnvironment();
+    }
+    greedyPolicy = new EpsilonGreedy(agent, 0.0);
+    frozenPolicy = TicTacToeFrozenPolicy.compile(agent);
+
+    List<TicTacToeState> inProgress = new ArrayList<>();
+    for (TicTacToeState state : BenchmarkBoards.randomStates(4)) {
+      if (state.statusCode() == TicTacToeBoard.STATUS_IN_PROGRESS) {
+        inProgress.add(state);
+      }
+    }
+    while (inProgress.size() < BenchmarkBoards.NUM_BOARDS) {
+      inProgress.addAll(inProgress.subList(0, Math.min(inProgress.size(), BenchmarkBoards.NUM_BOARDS - inProgress.size())));
+    }
+    states = inProgress.toArray(new TicTacToeState[0]);
+  }
+
+  private TicTacToeState nextState() {
+    next = (next + 1) & (BenchmarkBoards.NUM_BOARDS - 1);
+    return states[next];
+  }
+
+  @Benchmark
+  public Action epsilonGreedyAction() {
+    return greedyPolicy.action(nextState());
+  }
+
+  @Benchmark
+  public Action frozenAction() {
+    return frozenPolicy.action(nextState());
+  }
+
+  @Benchmark
+  public int frozenBestCell() {
+    return frozenPolicy.bestCell(nextState().boardIndex());
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl.benchmarks;
+
+import burlap.statehashing.HashableState;
+import burlap.statehashing.HashableStateFactory;
+import burlap.statehashing.simple.SimpleHashableStateFactory;
+import javafxpert.tictactoerl.TicTacToeHashableStateFactory;
+import javafxpert.tictactoerl.TicTacToeState;
+import javafxpert.tictactoerl.TicTacToeSymmetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of copying states and of hashing them for Q-table lookups, with the project's
+ * hashing factory and with BURLAP's general purpose SimpleHashableStateFactory, and of
+ * finding the canonical index of a board as TicTacToeDenseQLearning's symmetry mode does
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StateBenchmark {
+  private TicTacToeState[] states;
+
+  private HashableStateFactory tttHashingFactory;
+  private HashableStateFactory simpleHashingFactory;
+
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    states = BenchmarkBoards.randomStates(3);
+    tttHashingFactory = new TicTacToeHashableStateFactory();
+    simpleHashingFactory = new SimpleHashableStateFactory();
+  }
+
+  private TicTacToeState nextState() {
+    next = (next + 1) & (BenchmarkBoards.NUM_BOARDS - 1);
+    return states[next];
+  }
+
+  @Benchmark
+  public Object copy() {
+    return nextState().copy();
+  }
+
+  @Benchmark
+  public int tttHashing() {
+    return hash(tttHashingFactory);
+  }
+
+  @Benchmark
+  public int canonicalIndex() {
+    return TicTacToeSymmetry.canonicalIndex(nextState().boardIndex());
+  }
+
+  @Benchmark
+  public int simpleHashing() {
+    return hash(simpleHashingFactory);
+  }
+
+  /**
+   * Hash the next state and compare it with the previous one, as a hash map lookup would
+   */
+  private int hash(HashableStateFactory hashingFactory) {
+    TicTacToeState previous = states[next];
+    HashableState hashed = hashingFactory.hashState(nextState());
+    return hashed.hashCode() + (hashed.equals(hashingFactory.hashState(previous)) ? 1 : 0);
+  }
+}
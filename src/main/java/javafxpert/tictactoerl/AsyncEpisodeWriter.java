@@ -0,0 +1,217 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.singleagent.Episode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Records episodes without making the training thread wait on disk I/O.  Episodes
+ * are handed through a bounded queue to a background thread, which appends them in
+ * batches to an EpisodeLog.  Only every Nth episode is recorded, and when the queue
+ * is full an episode is either dropped or the caller waits, according to the OverflowPolicy.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class AsyncEpisodeWriter implements Closeable {
+  /**
+   * What to do with an episode that is to be recorded when the queue is full
+   */
+  public enum OverflowPolicy {
+    /**
+     * Wait for space in the queue, so that no sampled episode is lost
+     */
+    BLOCK,
+
+    /**
+     * Discard the episode, so that training never waits on the writer
+     */
+    DROP
+  }
+
+  private static final int DEFAULT_QUEUE_CAPACITY = 4096;
+  private static final int DEFAULT_BATCH_SIZE = 256;
+
+  private final EpisodeLog episodeLog;
+
+  private final BlockingQueue<Episode> queue;
+
+  private final int batchSize;
+
+  /**
+   * Record one of every sampleInterval episodes offered
+   */
+  private final int sampleInterval;
+
+  private final OverflowPolicy overflowPolicy;
+
+  private final AtomicLong numOffered = new AtomicLong();
+  private final AtomicLong numDropped = new AtomicLong();
+  private final AtomicLong numWritten = new AtomicLong();
+
+  private final Thread writerThread;
+
+  private volatile boolean closed = false;
+
+  /**
+   * Held shared by record() while it checks the closed flag and enqueues, and exclusively by
+   * close() while it sets the flag, so that no episode is enqueued after the writer thread
+   * may have seen the flag and drained the queue for the last time
+   */
+  private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+  /**
+   * First failure encountered by the writer thread, reported by close()
+   */
+  private volatile IOException writeFailure;
+
+  public AsyncEpisodeWriter(EpisodeLog episodeLog) {
+    this(episodeLog, 1, OverflowPolicy.BLOCK);
+  }
+
+  public AsyncEpisodeWriter(EpisodeLog episodeLog, int sampleInterval, OverflowPolicy overflowPolicy) {
+    this(episodeLog, sampleInterval, overflowPolicy, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE);
+  }
+
+  public AsyncEpisodeWriter(EpisodeLog episodeLog, int sampleInterval, OverflowPolicy overflowPolicy,
+                            int queueCapacity, int batchSize) {
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("sampleInterval must be at least 1: " + sampleInterval);
+    }
+    this.episodeLog = episodeLog;
+    this.sampleInterval = sampleInterval;
+    this.overflowPolicy = overflowPolicy;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+
+    writerThread = new Thread(this::writeBatches, "episode-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /**
+   * Offer an episode for recording.  Whether it is recorded depends upon the sample interval
+   * and, when the queue is full, the overflow policy.
+   */
+  public void record(Episode episode) {
+    closeLock.readLock().lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("AsyncEpisodeWriter has been closed");
+      }
+      if (numOffered.getAndIncrement() % sampleInterval != 0) {
+        return;
+      }
+      if (overflowPolicy == OverflowPolicy.BLOCK) {
+        try {
+          queue.put(episode);
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          numDropped.incrementAndGet();
+        }
+      }
+      else if (!queue.offer(episode)) {
+        numDropped.incrementAndGet();
+      }
+    }
+    finally {
+      closeLock.readLock().unlock();
+    }
+  }
+
+  public long getNumOffered() {
+    return numOffered.get();
+  }
+
+  public long getNumDropped() {
+    return numDropped.get();
+  }
+
+  public long getNumWritten() {
+    return numWritten.get();
+  }
+
+  /**
+   * Write the episodes remaining in the queue, stop the writer thread, and close the log
+   *
+   * @throws IOException if the log could not be written or closed
+   */
+  @Override
+  public void close() throws IOException {
+    closeLock.writeLock().lock();
+    try {
+      closed = true;
+    }
+    finally {
+      closeLock.writeLock().unlock();
+    }
+    try {
+      writerThread.join();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    episodeLog.close();
+    if (writeFailure != null) {
+      throw writeFailure;
+    }
+  }
+
+  /**
+   * Body of the writer thread, which drains the queue in batches until closed
+   */
+  private void writeBatches() {
+    List<Episode> batch = new ArrayList<>(batchSize);
+    while (!(closed && queue.isEmpty())) {
+      try {
+        Episode first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        if (writeFailure == null) {
+          episodeLog.append(batch);
+          numWritten.addAndGet(batch.size());
+        }
+        else {
+          numDropped.addAndGet(batch.size());
+        }
+      }
+      catch (IOException e) {
+        writeFailure = e;
+        numDropped.addAndGet(batch.size());
+      }
+      catch (InterruptedException e) {
+        return;
+      }
+      finally {
+        batch.clear();
+      }
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TicTacToeQTable whose updates are lock-free and atomic, for sharing among learning
+ * threads.  Each Q-value is held as the bits of a double in an AtomicLongArray, and
+ * updated with a compare-and-set loop.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class AtomicTicTacToeQTable extends TicTacToeQTable {
+  private final AtomicLongArray qValueBits = new AtomicLongArray(SIZE);
+
+  public AtomicTicTacToeQTable(double qInit) {
+    long qInitBits = Double.doubleToRawLongBits(qInit);
+    for (int slot = 0; slot < SIZE; slot++) {
+      qValueBits.set(slot, qInitBits);
+    }
+  }
+
+  @Override
+  public double qValue(int boardIndex, int cell) {
+    return Double.longBitsToDouble(qValueBits.get(slot(boardIndex, cell)));
+  }
+
+  @Override
+  public void setQValue(int boardIndex, int cell, double q) {
+    qValueBits.set(slot(boardIndex, cell), Double.doubleToRawLongBits(q));
+  }
+
+  @Override
+  public void update(int boardIndex, int cell, double target, double learningRate) {
+    int slot = slot(boardIndex, cell);
+    long currentBits;
+    long updatedBits;
+    do {
+      currentBits = qValueBits.get(slot);
+      double q = Double.longBitsToDouble(currentBits);
+      updatedBits = Double.doubleToRawLongBits(q + learningRate * (target - q));
+    } while (!qValueBits.compareAndSet(slot, currentBits, updatedBits));
+  }
+}
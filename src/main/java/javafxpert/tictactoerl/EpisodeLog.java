@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.singleagent.Episode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination to which recorded episodes are appended in batches, for example by an AsyncEpisodeWriter
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public interface EpisodeLog extends Closeable {
+
+  /**
+   * Append a batch of episodes, in order, and flush them to the underlying storage
+   */
+  void append(List<Episode> episodes) throws IOException;
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import java.util.Random;
+
+/**
+ * Opponent strategy that can state the exact probability with which it chooses each cell,
+ * which allows planners such as TicTacToeExactPlanner to solve for the best play against
+ * it without sampling.  All of the built-in strategies in OpponentStrategies are exact, and
+ * so are chains of exact strategies made with orElse().
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public interface ExactOpponentStrategy extends OpponentStrategy {
+  /**
+   * Give the probability with which chooseCell() plays each cell
+   *
+   * @param boardIndex Base-3 index of a board on which the game is in progress
+   * @param mark Mark that the strategy plays
+   * @param probabilities Array of NUM_CELLS elements, in which the probability of each cell is
+   *                      stored, if this strategy moves on the board
+   * @return Whether this strategy moves on the board, rather than declining
+   */
+  boolean cellProbabilities(int boardIndex, char mark, double[] probabilities);
+
+  /**
+   * @return Exact strategy that plays as this one does, or as the given strategy when this one declines
+   */
+  default ExactOpponentStrategy orElse(ExactOpponentStrategy next) {
+    ExactOpponentStrategy first = this;
+    return new ExactOpponentStrategy() {
+      @Override
+      public int chooseCell(int boardIndex, char mark, Random rand) {
+        int cell = first.chooseCell(boardIndex, mark, rand);
+        return cell != -1 ? cell : next.chooseCell(boardIndex, mark, rand);
+      }
+
+      @Override
+      public boolean cellProbabilities(int boardIndex, char mark, double[] probabilities) {
+        return first.cellProbabilities(boardIndex, mark, probabilities) ||
+            next.cellProbabilities(boardIndex, mark, probabilities);
+      }
+    };
+  }
+}
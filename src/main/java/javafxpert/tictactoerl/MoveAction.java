@@ -18,9 +18,23 @@ package javafxpert.tictactoerl;
 import burlap.mdp.core.action.Action;
 
 /**
+ * Move to a cell of the game board.  MoveActions are immutable, so the shared instances
+ * returned by forCell() can be used instead of creating new ones.
+ *
  * @author James L. Weaver (Twitter: @JavaFXpert)
  */
 public class MoveAction implements Action {
+  /**
+   * Shared instance for each cell, indexed by cell
+   */
+  private static final MoveAction[] CELL_ACTIONS = new MoveAction[TicTacToeState.NUM_CELLS];
+
+  static {
+    for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+      CELL_ACTIONS[cell] = new MoveAction(cell);
+    }
+  }
+
   /**
    * The action ID of this action.  Corresponds to a tic-tac-toe cell (zero based 0-8)
    */
@@ -32,6 +46,13 @@ public class MoveAction implements Action {
     this.actionId = actionId;
   }
 
+  /**
+   * @return The shared MoveAction for the given cell (zero based 0-8)
+   */
+  public static MoveAction forCell(int cell) {
+    return CELL_ACTIONS[cell];
+  }
+
   public int getActionId() {
     return actionId;
   }
@@ -43,7 +64,7 @@ public class MoveAction implements Action {
 
   @Override
   public Action copy() {
-    return new MoveAction(actionId);
+    return this;
   }
 
   @Override
@@ -20,6 +20,7 @@ import burlap.mdp.core.action.ActionType;
 import burlap.mdp.core.state.State;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -28,30 +29,55 @@ import java.util.List;
 public class MoveActionType implements ActionType {
   public static String BASE_ACTION_NAME = "moveAction";
 
+  /**
+   * Unmodifiable list of the (shared) MoveActions into the empty cells of a board, for each
+   * of the 512 possible masks of empty cells
+   */
+  private static final List<List<Action>> APPLICABLE_ACTIONS = new ArrayList<>(TicTacToeBoard.FULL_MASK + 1);
+
+  static {
+    for (int emptyMask = 0; emptyMask <= TicTacToeBoard.FULL_MASK; emptyMask++) {
+      List<Action> actions = new ArrayList<>(Integer.bitCount(emptyMask));
+      for (int i = 0; i < TicTacToeState.NUM_CELLS; i++) {
+        if ((emptyMask & (1 << i)) != 0) {
+          actions.add(MoveAction.forCell(i));
+        }
+      }
+      APPLICABLE_ACTIONS.add(Collections.unmodifiableList(actions));
+    }
+  }
+
   @Override
   public String typeName() {
     return BASE_ACTION_NAME;
   }
 
+  /**
+   * @param strRep Action name, for example "moveAction4"
+   * @throws IllegalArgumentException if strRep isn't the name of a move into a cell (0-8)
+   */
   @Override
   public Action associatedAction(String strRep) {
-    return new MoveAction(0); //TODO: Ascertain what is needed here
+    if (strRep.length() != BASE_ACTION_NAME.length() + 1 || !strRep.startsWith(BASE_ACTION_NAME)) {
+      throw new IllegalArgumentException("Not the name of a move action: " + strRep);
+    }
+    int cell = strRep.charAt(BASE_ACTION_NAME.length()) - '0';
+    if (cell < 0 || cell >= TicTacToeState.NUM_CELLS) {
+      throw new IllegalArgumentException("Not the name of a move action: " + strRep);
+    }
+    return MoveAction.forCell(cell);
   }
 
+  /**
+   * @return Shared, unmodifiable list of the moves into the empty cells of the board
+   */
   @Override
   public List<Action> allApplicableActions(State state) {
-    List<Action> applicableActions = new ArrayList<>();
     TicTacToeState tttState = (TicTacToeState)state;
 
-    String gameStatus = (String)tttState.get(TicTacToeState.VAR_GAME_STATUS);
-    if (gameStatus.equals(TicTacToeState.GAME_STATUS_IN_PROGRESS)) {
-      String gameBoard = (String)tttState.get(TicTacToeState.VAR_GAME_BOARD);
-      for (int i = 0; i < TicTacToeState.NUM_CELLS; i++) {
-        if (gameBoard.charAt(i) == TicTacToeState.EMPTY) {
-          applicableActions.add(new MoveAction(i));
-        }
-      }
+    if (tttState.statusCode() != TicTacToeBoard.STATUS_IN_PROGRESS) {
+      return APPLICABLE_ACTIONS.get(0);
     }
-    return applicableActions;
+    return APPLICABLE_ACTIONS.get(tttState.emptyMask());
   }
 }
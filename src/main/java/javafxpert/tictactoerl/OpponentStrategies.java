@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import java.util.Random;
+
+/**
+ * Built-in opponent strategies, and the priority chains of them that the environments
+ * have traditionally offered.  Each built-in strategy plays a cell chosen uniformly at
+ * random from a mask of candidate cells (declining when the mask is empty), so it is an
+ * ExactOpponentStrategy.  Random choices are made by counting and selecting
+ * bits of the mask, so they never retry or allocate.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public final class OpponentStrategies {
+  /**
+   * Mask of the center and corner cells (0, 2, 4, 6, 8)
+   */
+  private static final int CENTER_AND_CORNERS_MASK = 0x155;
+
+  /**
+   * Mask of the cells among which a strategy chooses
+   */
+  @FunctionalInterface
+  public interface CandidateCells {
+    /**
+     * @return Mask of empty cells, or zero if the strategy declines to move
+     */
+    int candidateCells(int boardIndex, char mark);
+  }
+
+  /**
+   * Plays the first empty cell
+   */
+  public static final ExactOpponentStrategy FIRST_EMPTY =
+      uniform((boardIndex, mark) -> Integer.lowestOneBit(TicTacToePositionTable.emptyMask(boardIndex)));
+
+  /**
+   * Plays a completely random empty cell
+   */
+  public static final ExactOpponentStrategy RANDOM =
+      uniform((boardIndex, mark) -> TicTacToePositionTable.emptyMask(boardIndex));
+
+  /**
+   * Plays a third mark in a row, if there is an opportunity to
+   */
+  public static final ExactOpponentStrategy WIN =
+      uniform((boardIndex, mark) -> cellMask(TicTacToePositionTable.winningCell(boardIndex, mark)));
+
+  /**
+   * Blocks a three-in-a-row by the other mark, if there is one to block
+   */
+  public static final ExactOpponentStrategy BLOCK =
+      uniform((boardIndex, mark) -> cellMask(TicTacToePositionTable.blockingCell(boardIndex, mark)));
+
+  /**
+   * Plays a random empty corner or center cell, if there is one
+   */
+  public static final ExactOpponentStrategy CENTER_OR_CORNER =
+      uniform((boardIndex, mark) -> TicTacToePositionTable.emptyMask(boardIndex) & CENTER_AND_CORNERS_MASK);
+
+  /**
+   * Never loses, playing a random one of the moves that minimax finds optimal
+   */
+  public static final ExactOpponentStrategy PERFECT =
+      uniform(TicTacToeMinimaxTable::optimalCells);
+
+  public static final ExactOpponentStrategy BLOCK_OR_RANDOM = BLOCK.orElse(RANDOM);
+
+  public static final ExactOpponentStrategy WIN_OR_BLOCK_OR_RANDOM = WIN.orElse(BLOCK).orElse(RANDOM);
+
+  public static final ExactOpponentStrategy WIN_OR_BLOCK_OR_CENTER_OR_CORNER_OR_RANDOM =
+      WIN.orElse(BLOCK).orElse(CENTER_OR_CORNER).orElse(RANDOM);
+
+  private OpponentStrategies() {
+  }
+
+  /**
+   * @return Exact strategy that plays a cell chosen uniformly at random from the candidate cells,
+   * and declines when there are none
+   */
+  public static ExactOpponentStrategy uniform(CandidateCells candidates) {
+    return new ExactOpponentStrategy() {
+      @Override
+      public int chooseCell(int boardIndex, char mark, Random rand) {
+        return randomCell(candidates.candidateCells(boardIndex, mark), rand);
+      }
+
+      @Override
+      public boolean cellProbabilities(int boardIndex, char mark, double[] probabilities) {
+        int cellMask = candidates.candidateCells(boardIndex, mark);
+        if (cellMask == 0) {
+          return false;
+        }
+        double probability = 1. / Integer.bitCount(cellMask);
+        for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+          probabilities[cell] = (cellMask & (1 << cell)) != 0 ? probability : 0.;
+        }
+        return true;
+      }
+    };
+  }
+
+  /**
+   * @return A cell chosen uniformly at random from those in the mask, or -1 if the mask is empty
+   */
+  public static int randomCell(int cellMask, Random rand) {
+    if (cellMask == 0) {
+      return -1;
+    }
+    return TicTacToeBoard.selectCell(cellMask, rand.nextInt(Integer.bitCount(cellMask)));
+  }
+
+  /**
+   * @return Mask of the given cell, or zero if the cell is -1
+   */
+  private static int cellMask(int cell) {
+    return cell == -1 ? 0 : 1 << cell;
+  }
+}
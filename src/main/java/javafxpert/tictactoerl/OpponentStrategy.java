@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import java.util.Random;
+
+/**
+ * Strategy with which the player embedded in an environment chooses its moves.  A strategy
+ * may decline to move (for example, a blocking strategy when there is nothing to block),
+ * so that strategies can be composed into priority chains with orElse(), such as
+ * win, then block, then center or corner, then random.  See OpponentStrategies for the
+ * built-in strategies.
+ *
+ * Strategies that can state the exact probability with which they choose each cell
+ * implement ExactOpponentStrategy, which allows planners such as TicTacToeExactPlanner to
+ * solve for the best play against them without sampling.
+ *
+ * Implementations should not allocate, as they are called on every step of every game.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+@FunctionalInterface
+public interface OpponentStrategy {
+  /**
+   * Choose a cell in which to play
+   *
+   * @param boardIndex Base-3 index (see TicTacToeBoard.index()) of a board on which the game is in progress
+   * @param mark Mark that the strategy plays
+   * @param rand Source of randomness, belonging to the environment
+   * @return Zero-based index of an empty cell, or -1 if this strategy declines to move
+   */
+  int chooseCell(int boardIndex, char mark, Random rand);
+
+  /**
+   * @return Strategy that plays as this one does, or as the given strategy when this one declines
+   */
+  default OpponentStrategy orElse(OpponentStrategy next) {
+    OpponentStrategy first = this;
+    return (boardIndex, mark, rand) -> {
+      int cell = first.chooseCell(boardIndex, mark, rand);
+      return cell != -1 ? cell : next.chooseCell(boardIndex, mark, rand);
+    };
+  }
+}
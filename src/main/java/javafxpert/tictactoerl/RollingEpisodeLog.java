@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.singleagent.Episode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EpisodeLog that appends episodes, in BURLAP's YAML episode format, to a single
+ * log file.  When the file grows beyond a size limit, the log rolls over to a new
+ * file, so the files are named baseName-0.episodes, baseName-1.episodes, and so on.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class RollingEpisodeLog implements EpisodeLog {
+  public static final String FILE_EXTENSION = ".episodes";
+
+  /**
+   * Line written after each episode to separate it from the next one
+   */
+  private static final String EPISODE_SEPARATOR = "---";
+
+  private static final long DEFAULT_MAX_FILE_BYTES = 64L * 1024 * 1024;
+
+  private final Path directory;
+
+  private final String baseName;
+
+  private final long maxFileBytes;
+
+  private BufferedWriter writer;
+
+  private int fileNumber = 0;
+
+  private long fileBytes = 0;
+
+  public RollingEpisodeLog(String directory, String baseName) {
+    this(directory, baseName, DEFAULT_MAX_FILE_BYTES);
+  }
+
+  public RollingEpisodeLog(String directory, String baseName, long maxFileBytes) {
+    this.directory = Paths.get(directory);
+    this.baseName = baseName;
+    this.maxFileBytes = maxFileBytes;
+  }
+
+  @Override
+  public void append(List<Episode> episodes) throws IOException {
+    for (Episode episode : episodes) {
+      if (writer == null || fileBytes >= maxFileBytes) {
+        rollOver();
+      }
+      String serialized = episode.serialize();
+      writer.write(serialized);
+      writer.newLine();
+      writer.write(EPISODE_SEPARATOR);
+      writer.newLine();
+      fileBytes += serialized.length() + EPISODE_SEPARATOR.length() + 2;
+    }
+    if (writer != null) {
+      writer.flush();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+  }
+
+  /**
+   * Close the current log file, if any, and start the next one
+   */
+  private void rollOver() throws IOException {
+    if (writer != null) {
+      writer.close();
+      fileNumber++;
+    }
+    else if (fileNumber == 0) {
+      // Starting a new log, so remove any files left by a previous one with the same name
+      for (int staleNumber = 0; Files.deleteIfExists(logFile(directory, baseName, staleNumber)); staleNumber++) {
+      }
+    }
+    Files.createDirectories(directory);
+    writer = Files.newBufferedWriter(logFile(directory, baseName, fileNumber), StandardCharsets.UTF_8);
+    fileBytes = 0;
+  }
+
+  private static Path logFile(Path directory, String baseName, int fileNumber) {
+    return directory.resolve(baseName + "-" + fileNumber + FILE_EXTENSION);
+  }
+
+  /**
+   * Read all of the episodes from the log files with the given base name, in the order they were written
+   */
+  public static List<Episode> readEpisodes(String directory, String baseName) throws IOException {
+    List<Episode> episodes = new ArrayList<>();
+    Path dir = Paths.get(directory);
+    for (int fileNumber = 0; Files.exists(logFile(dir, baseName, fileNumber)); fileNumber++) {
+      StringBuilder serialized = new StringBuilder();
+      for (String line : Files.readAllLines(logFile(dir, baseName, fileNumber), StandardCharsets.UTF_8)) {
+        if (line.equals(EPISODE_SEPARATOR)) {
+          episodes.add(Episode.parseEpisode(serialized.toString()));
+          serialized.setLength(0);
+        }
+        else {
+          serialized.append(line).append('\n');
+        }
+      }
+    }
+    return episodes;
+  }
+}
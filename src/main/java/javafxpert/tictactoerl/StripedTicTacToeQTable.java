@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+/**
+ * TicTacToeQTable, for sharing among learning threads, whose updates are made under
+ * one of a fixed number of locks (stripes) chosen by board index.  Threads only
+ * contend when they update boards in the same stripe, and reads take no lock.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class StripedTicTacToeQTable extends TicTacToeQTable {
+  private static final int DEFAULT_NUM_STRIPES = 256;
+
+  private final Object[] stripes;
+
+  public StripedTicTacToeQTable(double qInit) {
+    this(qInit, DEFAULT_NUM_STRIPES);
+  }
+
+  public StripedTicTacToeQTable(double qInit, int numStripes) {
+    super(qInit);
+    stripes = new Object[numStripes];
+    for (int i = 0; i < numStripes; i++) {
+      stripes[i] = new Object();
+    }
+  }
+
+  @Override
+  public void setQValue(int boardIndex, int cell, double q) {
+    synchronized (stripes[boardIndex % stripes.length]) {
+      super.setQValue(boardIndex, cell, q);
+    }
+  }
+
+  @Override
+  public void update(int boardIndex, int cell, double target, double learningRate) {
+    synchronized (stripes[boardIndex % stripes.length]) {
+      super.update(boardIndex, cell, target, learningRate);
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.singleagent.Episode;
+import burlap.behavior.singleagent.learning.LearningAgent;
+import burlap.behavior.valuefunction.QProvider;
+import burlap.behavior.valuefunction.QValue;
+import burlap.mdp.core.action.Action;
+import burlap.mdp.core.state.State;
+import burlap.mdp.singleagent.environment.Environment;
+import burlap.mdp.singleagent.environment.EnvironmentOutcome;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Learns the value of afterstates (the board just after the agent's move, before the
+ * opponent replies), as in Sutton and Barto's "An Extended Example: Tic-Tac-Toe".  Moves
+ * are chosen by scanning the afterstates of the legal moves.  Every (board, cell) pair that
+ * leads to the same afterstate shares one value, so the table holds one value per board
+ * rather than one per board and cell, and what is learned about a position reached in one
+ * way applies to every way of reaching it.
+ *
+ * The value of an afterstate is the expected return from the opponent's reply onward,
+ * which is the Q-value of each move leading to it, so the agent is also a QProvider.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeAfterstateLearning implements LearningAgent, QProvider {
+  /**
+   * Value of each afterstate, indexed by base-3 board index
+   */
+  protected final double[] values = new double[TicTacToeBoard.NUM_POSITIONS];
+
+  /**
+   * Discount factor
+   */
+  protected double gamma;
+
+  protected double learningRate;
+
+  /**
+   * Probability of choosing a random action rather than a greedy one while learning
+   */
+  protected double epsilon = 0.1;
+
+  protected Random rand = new Random();
+
+  /**
+   * Lookup of the value of the afterstate of playing a cell, for choosing cells
+   */
+  private final TicTacToeCellChooser.CellValues afterstateValues =
+      (boardIndex, cell) -> values[afterstate(boardIndex, cell)];
+
+  public TicTacToeAfterstateLearning(double gamma, double valueInit, double learningRate) {
+    this.gamma = gamma;
+    this.learningRate = learningRate;
+    Arrays.fill(values, valueInit);
+  }
+
+  public double getEpsilon() {
+    return epsilon;
+  }
+
+  public void setEpsilon(double epsilon) {
+    this.epsilon = epsilon;
+  }
+
+  /**
+   * @return Learned value of the afterstate with the given board index
+   */
+  public double afterstateValue(int afterstateIndex) {
+    return values[afterstateIndex];
+  }
+
+  @Override
+  public Episode runLearningEpisode(Environment env) {
+    return runLearningEpisode(env, -1);
+  }
+
+  @Override
+  public Episode runLearningEpisode(Environment env, int maxSteps) {
+    TicTacToeState curState = (TicTacToeState)env.currentObservation();
+    Episode ea = new Episode(curState);
+
+    int steps = 0;
+    while (!env.isInTerminalState() && (steps < maxSteps || maxSteps == -1)) {
+      int boardIndex = curState.boardIndex();
+      int cell = epsilonGreedyCell(boardIndex, curState.emptyMask());
+      MoveAction action = MoveAction.forCell(cell);
+      EnvironmentOutcome eo = env.executeAction(action);
+      TicTacToeState nextState = (TicTacToeState)eo.op;
+
+      double maxValue = eo.terminated ? 0. : maxAfterstateValue(nextState.boardIndex());
+      int afterstateIndex = afterstate(boardIndex, cell);
+      values[afterstateIndex] += learningRate * (eo.r + gamma * maxValue - values[afterstateIndex]);
+
+      ea.transition(action, nextState, eo.r);
+      curState = nextState;
+      steps++;
+    }
+
+    return ea;
+  }
+
+  /**
+   * @return Base-3 index of the board after the mark to move plays the given empty cell
+   */
+  protected static int afterstate(int boardIndex, int cell) {
+    int xMask = TicTacToePositionTable.xMask(boardIndex);
+    int oMask = TicTacToePositionTable.oMask(boardIndex);
+    if (Integer.bitCount(xMask) == Integer.bitCount(oMask)) {
+      return TicTacToeBoard.index(xMask | 1 << cell, oMask);
+    }
+    return TicTacToeBoard.index(xMask, oMask | 1 << cell);
+  }
+
+  /**
+   * Choose a random empty cell with probability epsilon, and otherwise a greedy one
+   */
+  protected int epsilonGreedyCell(int boardIndex, int emptyMask) {
+    return TicTacToeCellChooser.epsilonGreedyCell(boardIndex, emptyMask, epsilon, rand, afterstateValues);
+  }
+
+  /**
+   * Choose the empty cell whose afterstate has the highest value, breaking ties uniformly at random
+   */
+  protected int greedyCell(int boardIndex, int emptyMask) {
+    return TicTacToeCellChooser.greedyCell(boardIndex, emptyMask, rand, afterstateValues);
+  }
+
+  /**
+   * @return The maximum value of the afterstates of the legal moves on a board, or 0 if there are none
+   */
+  protected double maxAfterstateValue(int boardIndex) {
+    int emptyMask = TicTacToePositionTable.emptyMask(boardIndex);
+    if (emptyMask == 0) {
+      return 0.;
+    }
+    double maxValue = Double.NEGATIVE_INFINITY;
+    for (int cells = emptyMask; cells != 0; cells &= cells - 1) {
+      maxValue = Math.max(maxValue, values[afterstate(boardIndex, Integer.numberOfTrailingZeros(cells))]);
+    }
+    return maxValue;
+  }
+
+  @Override
+  public List<QValue> qValues(State s) {
+    TicTacToeState tttState = (TicTacToeState)s;
+    List<QValue> qValues = new ArrayList<>();
+    if (tttState.statusCode() == TicTacToeBoard.STATUS_IN_PROGRESS) {
+      int boardIndex = tttState.boardIndex();
+      for (int cells = tttState.emptyMask(); cells != 0; cells &= cells - 1) {
+        int cell = Integer.numberOfTrailingZeros(cells);
+        qValues.add(new QValue(s, MoveAction.forCell(cell), values[afterstate(boardIndex, cell)]));
+      }
+    }
+    return qValues;
+  }
+
+  @Override
+  public double qValue(State s, Action a) {
+    TicTacToeState tttState = (TicTacToeState)s;
+    int cell = ((MoveAction)a).getActionId();
+    if ((tttState.emptyMask() & (1 << cell)) == 0) {
+      return 0.;
+    }
+    return values[afterstate(tttState.boardIndex(), cell)];
+  }
+
+  @Override
+  public double value(State s) {
+    TicTacToeState tttState = (TicTacToeState)s;
+    if (tttState.statusCode() != TicTacToeBoard.STATUS_IN_PROGRESS) {
+      return 0.;
+    }
+    return maxAfterstateValue(tttState.boardIndex());
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import java.util.Random;
+
+/**
+ * Environment that plays many games of tic-tac-toe at once, with the same rules and
+ * rewards as TicTacToeEnv.  The games are held in struct-of-arrays form (board masks,
+ * status and reward as primitive arrays), and each call to step() applies one move in
+ * every game, plays the opponent's reply in every game still in progress, and resets
+ * the games that finished.  No objects are created per step.
+ *
+ * The arrays returned by the accessors belong to the environment, and are overwritten
+ * by the next call to step().
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeBatchEnv {
+  private final int numGames;
+
+  private final OpponentStrategy opponentStrategy;
+
+  /**
+   * Mark that the player embedded in the environment plays
+   */
+  private final char envPlayerMark;
+
+  private final Random rand;
+
+  private final int[] xMasks;
+  private final int[] oMasks;
+
+  /**
+   * Base-3 index of each game's current board (after any reset)
+   */
+  private final int[] boardIndices;
+
+  /**
+   * Base-3 index of each game's board as a result of the last step, before any reset
+   */
+  private final int[] outcomeBoardIndices;
+
+  /**
+   * Status (one of the TicTacToeBoard.STATUS_* codes) of each game as a result of the last step
+   */
+  private final byte[] statuses;
+
+  private final double[] rewards;
+
+  private final boolean[] terminated;
+
+  private long numGamesCompleted = 0;
+
+  /**
+   * Number of moves attempted outside the board or to an occupied cell
+   */
+  private long numIllegalMoves = 0;
+
+  public TicTacToeBatchEnv(int numGames, OpponentStrategy opponentStrategy) {
+    this(numGames, opponentStrategy, TicTacToeState.O_MARK, new Random());
+  }
+
+  public TicTacToeBatchEnv(int numGames, OpponentStrategy opponentStrategy, char envPlayerMark, Random rand) {
+    this.numGames = numGames;
+    this.opponentStrategy = opponentStrategy;
+    this.envPlayerMark = envPlayerMark;
+    this.rand = rand;
+    xMasks = new int[numGames];
+    oMasks = new int[numGames];
+    boardIndices = new int[numGames];
+    outcomeBoardIndices = new int[numGames];
+    statuses = new byte[numGames];
+    rewards = new double[numGames];
+    terminated = new boolean[numGames];
+    for (int game = 0; game < numGames; game++) {
+      resetGame(game);
+    }
+  }
+
+  public int numGames() {
+    return numGames;
+  }
+
+  /**
+   * @return Base-3 index of each game's current board, from which the next move is to be made
+   */
+  public int[] boardIndices() {
+    return boardIndices;
+  }
+
+  /**
+   * @return Base-3 index of each game's board as a result of the last step, before finished games were reset
+   */
+  public int[] outcomeBoardIndices() {
+    return outcomeBoardIndices;
+  }
+
+  /**
+   * @return Status of each game as a result of the last step, as TicTacToeBoard.STATUS_* codes
+   */
+  public byte[] statuses() {
+    return statuses;
+  }
+
+  public double[] rewards() {
+    return rewards;
+  }
+
+  /**
+   * @return Whether each game finished in the last step (and has since been reset)
+   */
+  public boolean[] terminated() {
+    return terminated;
+  }
+
+  public int emptyMask(int game) {
+    return ~(xMasks[game] | oMasks[game]) & TicTacToeBoard.FULL_MASK;
+  }
+
+  public long getNumGamesCompleted() {
+    return numGamesCompleted;
+  }
+
+  public long getNumIllegalMoves() {
+    return numIllegalMoves;
+  }
+
+  /**
+   * Make one move in every game, followed by the opponent's reply where the game is still
+   * in progress.  Games that finish are reset, ready for the next step.
+   *
+   * @param cells Cell (zero based 0-8) to play in each game.  A move outside the board
+   *              or to an occupied cell is ignored and counted as illegal, as in TicTacToeEnv.
+   */
+  public void step(int[] cells) {
+    char agentMark = envPlayerMark == TicTacToeState.O_MARK ? TicTacToeState.X_MARK : TicTacToeState.O_MARK;
+    int envWinStatus = TicTacToeBoard.winStatus(envPlayerMark);
+    int agentWinStatus = TicTacToeBoard.winStatus(agentMark);
+
+    for (int game = 0; game < numGames; game++) {
+      int cell = cells[game];
+      if (cell < 0 || cell >= TicTacToeState.NUM_CELLS || (emptyMask(game) & (1 << cell)) == 0) {
+
+        // Illegal move attempted so don't change the board
+        numIllegalMoves++;
+      }
+      else {
+        markCell(game, 1 << cell, agentMark);
+      }
+
+      int status = TicTacToePositionTable.status(TicTacToeBoard.index(xMasks[game], oMasks[game]));
+      if (status == TicTacToeBoard.STATUS_IN_PROGRESS) {
+        markCell(game, 1 << opponentCell(game), envPlayerMark);
+        status = TicTacToePositionTable.status(TicTacToeBoard.index(xMasks[game], oMasks[game]));
+      }
+
+      statuses[game] = (byte)status;
+      outcomeBoardIndices[game] = TicTacToeBoard.index(xMasks[game], oMasks[game]);
+      rewards[game] = status == envWinStatus ? TicTacToeEnv.LOSE_REWARD :
+          status == agentWinStatus ? TicTacToeEnv.WIN_REWARD : TicTacToeEnv.MOVE_REWARD;
+      terminated[game] = status != TicTacToeBoard.STATUS_IN_PROGRESS;
+
+      if (terminated[game]) {
+        numGamesCompleted++;
+        resetGame(game);
+      }
+      else {
+        boardIndices[game] = outcomeBoardIndices[game];
+      }
+    }
+  }
+
+  /**
+   * Start a new game, in which the environment moves first (randomly) if it plays X
+   */
+  private void resetGame(int game) {
+    xMasks[game] = 0;
+    oMasks[game] = 0;
+    if (envPlayerMark == TicTacToeState.X_MARK) {
+      xMasks[game] = 1 << OpponentStrategies.randomCell(TicTacToeBoard.FULL_MASK, rand);
+    }
+    boardIndices[game] = TicTacToeBoard.index(xMasks[game], oMasks[game]);
+  }
+
+  private void markCell(int game, int cellBit, char mark) {
+    if (mark == TicTacToeState.X_MARK) {
+      xMasks[game] |= cellBit;
+    }
+    else {
+      oMasks[game] |= cellBit;
+    }
+  }
+
+  /**
+   * Choose the opponent's reply in a game that is still in progress, playing randomly
+   * if the opponent strategy declines to move
+   */
+  private int opponentCell(int game) {
+    int boardIndex = TicTacToeBoard.index(xMasks[game], oMasks[game]);
+    int cell = opponentStrategy.chooseCell(boardIndex, envPlayerMark, rand);
+    return cell != -1 ? cell : OpponentStrategies.randomCell(emptyMask(game), rand);
+  }
+}
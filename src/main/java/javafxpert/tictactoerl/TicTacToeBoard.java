@@ -0,0 +1,217 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+/**
+ * Packed (bitboard) representation of a tic-tac-toe board.  The X and O marks
+ * are each held in a 9-bit mask, where bit n corresponds to cell n (zero based 0-8).
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public final class TicTacToeBoard {
+  /**
+   * Primitive game status codes, corresponding to the TicTacToeState.GAME_STATUS_* strings
+   */
+  public static final int STATUS_IN_PROGRESS = 0;
+  public static final int STATUS_X_WON = 1;
+  public static final int STATUS_O_WON = 2;
+  public static final int STATUS_CATS_GAME = 3;
+
+  /**
+   * Mask with a bit set for every cell on the board
+   */
+  public static final int FULL_MASK = 0x1FF;
+
+  /**
+   * Number of distinct boards in the base-3 encoding, where each cell is 0 (empty), 1 (X) or 2 (O)
+   */
+  public static final int NUM_POSITIONS = 19683;
+
+  /**
+   * Masks of the eight three-in-a-row lines: rows, then columns, then diagonals
+   */
+  private static final int[] LINE_MASKS = {
+      0x007, 0x038, 0x1C0,
+      0x049, 0x092, 0x124,
+      0x111, 0x054
+  };
+
+  private static final int[] POWERS_OF_3 = {1, 3, 9, 27, 81, 243, 729, 2187, 6561};
+
+  /**
+   * Indicates, for each of the 512 possible masks, whether it contains a three-in-a-row
+   */
+  private static final boolean[] HAS_LINE = new boolean[FULL_MASK + 1];
+
+  /**
+   * Base-3 value of each of the 512 possible masks, taking each set bit n as 3^n
+   */
+  private static final int[] BASE3 = new int[FULL_MASK + 1];
+
+  static {
+    for (int mask = 1; mask <= FULL_MASK; mask++) {
+      int lowestBit = Integer.numberOfTrailingZeros(mask);
+      BASE3[mask] = BASE3[mask & (mask - 1)] + POWERS_OF_3[lowestBit];
+    }
+    for (int mask = 0; mask <= FULL_MASK; mask++) {
+      for (int lineMask : LINE_MASKS) {
+        if ((mask & lineMask) == lineMask) {
+          HAS_LINE[mask] = true;
+          break;
+        }
+      }
+    }
+  }
+
+  private TicTacToeBoard() {
+  }
+
+  /**
+   * Determine whether the marks in a mask include a three-in-a-row
+   *
+   * @param markMask Mask of the cells occupied by one player
+   * @return true if the mask contains a complete line
+   */
+  public static boolean hasLine(int markMask) {
+    return HAS_LINE[markMask];
+  }
+
+  /**
+   * Compute the base-3 index of a board, in which cell n contributes 3^n for an X and 2 * 3^n for an O
+   *
+   * @param xMask Mask of the cells occupied by X
+   * @param oMask Mask of the cells occupied by O
+   * @return Index in the range 0 to NUM_POSITIONS - 1
+   */
+  public static int index(int xMask, int oMask) {
+    return BASE3[xMask] + 2 * BASE3[oMask];
+  }
+
+  /**
+   * Evaluate the status of the game (in-progress, or who won)
+   *
+   * @param xMask Mask of the cells occupied by X
+   * @param oMask Mask of the cells occupied by O
+   * @return One of the STATUS_* codes
+   */
+  public static int evalStatus(int xMask, int oMask) {
+    if (HAS_LINE[xMask]) {
+      return STATUS_X_WON;
+    }
+    if (HAS_LINE[oMask]) {
+      return STATUS_O_WON;
+    }
+    return (xMask | oMask) == FULL_MASK ? STATUS_CATS_GAME : STATUS_IN_PROGRESS;
+  }
+
+  /**
+   * Find a cell that would complete a three-in-a-row for the given marks.  Lines are
+   * examined in the order rows, columns, diagonals.
+   *
+   * @param markMask Mask of the cells occupied by the player
+   * @param emptyMask Mask of the empty cells
+   * @return Zero-based index of the completing cell, or -1 if no cells apply
+   */
+  public static int lineCompletingCell(int markMask, int emptyMask) {
+    for (int lineMask : LINE_MASKS) {
+      int openCells = lineMask & emptyMask;
+      if (openCells != 0 && Integer.bitCount(lineMask & markMask) == 2) {
+        return Integer.numberOfTrailingZeros(openCells);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Select the nth (zero based) cell whose bit is set in a mask, without allocating
+   *
+   * @param cellMask Mask of candidate cells
+   * @param n Position of the cell among the set bits, less than Integer.bitCount(cellMask)
+   * @return Zero-based index of the selected cell
+   */
+  public static int selectCell(int cellMask, int n) {
+    for (int i = 0; i < n; i++) {
+      cellMask &= cellMask - 1;
+    }
+    return Integer.numberOfTrailingZeros(cellMask);
+  }
+
+  /**
+   * @param mark X_MARK or O_MARK
+   * @return The status code indicating that the given mark won
+   */
+  public static int winStatus(char mark) {
+    return mark == TicTacToeState.X_MARK ? STATUS_X_WON : STATUS_O_WON;
+  }
+
+  /**
+   * Extract the mask of cells holding the given mark from a board string such as "XOIIXOXIO"
+   */
+  public static int markMask(String gameBoard, char mark) {
+    int mask = 0;
+    for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+      if (gameBoard.charAt(cell) == mark) {
+        mask |= 1 << cell;
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Build the string representation of a board, for example: "XOIIXOXIO"
+   */
+  public static String boardString(int xMask, int oMask) {
+    char[] cells = new char[TicTacToeState.NUM_CELLS];
+    for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+      int cellBit = 1 << cell;
+      cells[cell] = (xMask & cellBit) != 0 ? TicTacToeState.X_MARK :
+          (oMask & cellBit) != 0 ? TicTacToeState.O_MARK : TicTacToeState.EMPTY;
+    }
+    return new String(cells);
+  }
+
+  /**
+   * Convert a TicTacToeState.GAME_STATUS_* string to its status code
+   */
+  public static int statusCode(String gameStatus) {
+    switch (gameStatus.charAt(0)) {
+      case 'X':
+        return STATUS_X_WON;
+      case 'O':
+        return STATUS_O_WON;
+      case 'C':
+        return STATUS_CATS_GAME;
+      default:
+        return STATUS_IN_PROGRESS;
+    }
+  }
+
+  /**
+   * Convert a status code to its TicTacToeState.GAME_STATUS_* string
+   */
+  public static String statusString(int statusCode) {
+    switch (statusCode) {
+      case STATUS_X_WON:
+        return TicTacToeState.GAME_STATUS_X_WON;
+      case STATUS_O_WON:
+        return TicTacToeState.GAME_STATUS_O_WON;
+      case STATUS_CATS_GAME:
+        return TicTacToeState.GAME_STATUS_CATS_GAME;
+      default:
+        return TicTacToeState.GAME_STATUS_IN_PROGRESS;
+    }
+  }
+}
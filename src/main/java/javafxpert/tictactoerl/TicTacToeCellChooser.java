@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import java.util.Random;
+
+/**
+ * Epsilon-greedy choice of a cell over the empty cells of a board, shared by the learners
+ * whatever they keep their values in.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+final class TicTacToeCellChooser {
+  /**
+   * Value of playing a cell on a board, to the learner choosing
+   */
+  @FunctionalInterface
+  interface CellValues {
+    double value(int boardIndex, int cell);
+  }
+
+  private TicTacToeCellChooser() {
+  }
+
+  /**
+   * Choose a random empty cell with probability epsilon, and otherwise a greedy one
+   */
+  static int epsilonGreedyCell(int boardIndex, int emptyMask, double epsilon, Random rand, CellValues values) {
+    if (rand.nextDouble() < epsilon) {
+      return TicTacToeBoard.selectCell(emptyMask, rand.nextInt(Integer.bitCount(emptyMask)));
+    }
+    return greedyCell(boardIndex, emptyMask, rand, values);
+  }
+
+  /**
+   * Choose the empty cell with the highest value, breaking ties uniformly at random
+   */
+  static int greedyCell(int boardIndex, int emptyMask, Random rand, CellValues values) {
+    int bestCell = -1;
+    double bestValue = Double.NEGATIVE_INFINITY;
+    int numTies = 0;
+    for (int cells = emptyMask; cells != 0; cells &= cells - 1) {
+      int cell = Integer.numberOfTrailingZeros(cells);
+      double value = values.value(boardIndex, cell);
+      if (value > bestValue) {
+        bestValue = value;
+        bestCell = cell;
+        numTies = 1;
+      }
+      else if (value == bestValue && rand.nextInt(++numTies) == 0) {
+        bestCell = cell;
+      }
+    }
+    return bestCell;
+  }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.singleagent.Episode;
+import burlap.behavior.singleagent.learning.LearningAgent;
+import burlap.behavior.valuefunction.QProvider;
+import burlap.behavior.valuefunction.QValue;
+import burlap.mdp.core.action.Action;
+import burlap.mdp.core.state.State;
+import burlap.mdp.singleagent.environment.Environment;
+import burlap.mdp.singleagent.environment.EnvironmentOutcome;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Q-learning agent specialized for tic-tac-toe, which keeps its Q-values in a
+ * TicTacToeQTable rather than in BURLAP's map of per-state nodes.  Actions are chosen
+ * epsilon-greedily (ties broken randomly) directly over the table.
+ *
+ * Because it is also a QProvider, it can be used with BURLAP policies such as
+ * EpsilonGreedy, for example in a TicTacToePlayerEnv.
+ *
+ * Optionally, Q-values may be shared among the rotations and reflections of each
+ * board (see TicTacToeSymmetry), in which case they are stored for canonical boards only.
+ * Also optionally, each transition may be stored in a TicTacToeReplayMemory, from which a
+ * batch of past transitions is replayed after every step.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeDenseQLearning implements LearningAgent, QProvider {
+  protected TicTacToeQTable qTable;
+
+  /**
+   * Discount factor
+   */
+  protected double gamma;
+
+  protected double learningRate;
+
+  /**
+   * Probability of choosing a random action rather than a greedy one while learning
+   */
+  protected double epsilon = 0.1;
+
+  protected Random rand = new Random();
+
+  /**
+   * Indicates whether Q-values are stored for canonical boards, and shared among symmetric boards
+   */
+  protected boolean useSymmetry = false;
+
+  /**
+   * Lookup of Q-values through qValue(), for choosing cells
+   */
+  private final TicTacToeCellChooser.CellValues cellQValues = this::qValue;
+
+  /**
+   * Memory of past transitions to replay, or null if transitions are used only once
+   */
+  protected TicTacToeReplayMemory replayMemory;
+
+  /**
+   * Number of transitions replayed after each step
+   */
+  protected int replayBatchSize;
+
+  public TicTacToeDenseQLearning(double gamma, double qInit, double learningRate) {
+    this(new TicTacToeQTable(qInit), gamma, learningRate);
+  }
+
+  public TicTacToeDenseQLearning(TicTacToeQTable qTable, double gamma, double learningRate) {
+    this.qTable = qTable;
+    this.gamma = gamma;
+    this.learningRate = learningRate;
+  }
+
+  public TicTacToeQTable getQTable() {
+    return qTable;
+  }
+
+  public double getEpsilon() {
+    return epsilon;
+  }
+
+  public void setEpsilon(double epsilon) {
+    this.epsilon = epsilon;
+  }
+
+  public boolean isUseSymmetry() {
+    return useSymmetry;
+  }
+
+  /**
+   * Indicate whether Q-values should be shared among the 8 rotations and reflections of each board.
+   * This should be set before learning begins, as the layout of the Q-table differs between modes.
+   */
+  public void setUseSymmetry(boolean useSymmetry) {
+    this.useSymmetry = useSymmetry;
+  }
+
+  public TicTacToeReplayMemory getReplayMemory() {
+    return replayMemory;
+  }
+
+  /**
+   * Store each transition in a replay memory, and replay a batch of transitions sampled
+   * from it after every step
+   *
+   * @param replayMemory Memory of transitions, or null to use each transition only once
+   * @param batchSize Number of transitions replayed after each step
+   */
+  public void setReplayMemory(TicTacToeReplayMemory replayMemory, int batchSize) {
+    this.replayMemory = replayMemory;
+    this.replayBatchSize = batchSize;
+  }
+
+  @Override
+  public Episode runLearningEpisode(Environment env) {
+    return runLearningEpisode(env, -1);
+  }
+
+  @Override
+  public Episode runLearningEpisode(Environment env, int maxSteps) {
+    TicTacToeState curState = (TicTacToeState)env.currentObservation();
+    Episode ea = new Episode(curState);
+
+    int steps = 0;
+    while (!env.isInTerminalState() && (steps < maxSteps || maxSteps == -1)) {
+      MoveAction action = MoveAction.forCell(epsilonGreedyCell(curState.boardIndex(), curState.emptyMask()));
+      EnvironmentOutcome eo = env.executeAction(action);
+      TicTacToeState nextState = (TicTacToeState)eo.op;
+
+      double maxQ = eo.terminated ? 0. : maxQValue(nextState.boardIndex(), nextState.emptyMask());
+      updateQValue(curState.boardIndex(), action.getActionId(), eo.r + gamma * maxQ);
+
+      if (replayMemory != null) {
+        replayMemory.add(curState.boardIndex(), action.getActionId(), eo.r, nextState.boardIndex(), eo.terminated);
+        replayBatch();
+      }
+
+      ea.transition(action, nextState, eo.r);
+      curState = nextState;
+      steps++;
+    }
+
+    return ea;
+  }
+
+  /**
+   * Replay a batch of transitions sampled from the replay memory, recording the TD error
+   * of each as its priority, and scaling each update by its importance-sampling weight
+   */
+  protected void replayBatch() {
+    for (int i = 0; i < replayBatchSize; i++) {
+      int slot = replayMemory.sample(rand);
+      int boardIndex = replayMemory.boardIndex(slot);
+      int cell = replayMemory.cell(slot);
+      int nextBoardIndex = replayMemory.nextBoardIndex(slot);
+      double maxQ = replayMemory.isTerminal(slot) ? 0. :
+          maxQValue(nextBoardIndex, TicTacToePositionTable.emptyMask(nextBoardIndex));
+      double q = qValue(boardIndex, cell);
+      double tdError = replayMemory.reward(slot) + gamma * maxQ - q;
+      double weight = replayMemory.importanceWeight(slot);
+      replayMemory.updatePriority(slot, tdError);
+      updateQValue(boardIndex, cell, q + weight * tdError);
+    }
+  }
+
+  /**
+   * Choose a random empty cell with probability epsilon, and otherwise a greedy one
+   */
+  protected int epsilonGreedyCell(int boardIndex, int emptyMask) {
+    return TicTacToeCellChooser.epsilonGreedyCell(boardIndex, emptyMask, epsilon, rand, cellQValues);
+  }
+
+  /**
+   * Choose the empty cell with the highest Q-value, breaking ties uniformly at random
+   */
+  protected int greedyCell(int boardIndex, int emptyMask) {
+    return TicTacToeCellChooser.greedyCell(boardIndex, emptyMask, rand, cellQValues);
+  }
+
+  /**
+   * Look up the Q-value of playing a cell on a board, mapping both to the canonical
+   * board when symmetry is in use
+   */
+  protected double qValue(int boardIndex, int cell) {
+    if (useSymmetry) {
+      int transform = TicTacToeSymmetry.canonicalTransform(boardIndex);
+      return qTable.qValue(TicTacToeSymmetry.canonicalIndex(boardIndex), TicTacToeSymmetry.mapCell(transform, cell));
+    }
+    return qTable.qValue(boardIndex, cell);
+  }
+
+  /**
+   * Move the Q-value of playing a cell on a board toward a target
+   */
+  protected void updateQValue(int boardIndex, int cell, double target) {
+    if (useSymmetry) {
+      int transform = TicTacToeSymmetry.canonicalTransform(boardIndex);
+      qTable.update(TicTacToeSymmetry.canonicalIndex(boardIndex), TicTacToeSymmetry.mapCell(transform, cell),
+          target, learningRate);
+    }
+    else {
+      qTable.update(boardIndex, cell, target, learningRate);
+    }
+  }
+
+  /**
+   * @return The maximum Q-value over the given cells of a board, or 0 if there are none
+   */
+  protected double maxQValue(int boardIndex, int cellMask) {
+    if (useSymmetry) {
+      int transform = TicTacToeSymmetry.canonicalTransform(boardIndex);
+      return qTable.maxQValue(TicTacToeSymmetry.canonicalIndex(boardIndex),
+          TicTacToeSymmetry.mapMask(transform, cellMask));
+    }
+    return qTable.maxQValue(boardIndex, cellMask);
+  }
+
+  @Override
+  public List<QValue> qValues(State s) {
+    TicTacToeState tttState = (TicTacToeState)s;
+    List<QValue> qValues = new ArrayList<>();
+    if (tttState.statusCode() == TicTacToeBoard.STATUS_IN_PROGRESS) {
+      int boardIndex = tttState.boardIndex();
+      for (int cells = tttState.emptyMask(); cells != 0; cells &= cells - 1) {
+        int cell = Integer.numberOfTrailingZeros(cells);
+        qValues.add(new QValue(s, MoveAction.forCell(cell), qValue(boardIndex, cell)));
+      }
+    }
+    return qValues;
+  }
+
+  @Override
+  public double qValue(State s, Action a) {
+    return qValue(((TicTacToeState)s).boardIndex(), ((MoveAction)a).getActionId());
+  }
+
+  @Override
+  public double value(State s) {
+    TicTacToeState tttState = (TicTacToeState)s;
+    if (tttState.statusCode() != TicTacToeBoard.STATUS_IN_PROGRESS) {
+      return 0.;
+    }
+    return maxQValue(tttState.boardIndex(), tttState.emptyMask());
+  }
+}
@@ -22,30 +22,29 @@ import burlap.mdp.singleagent.environment.EnvironmentOutcome;
 import burlap.mdp.singleagent.environment.extensions.EnvironmentObserver;
 import burlap.mdp.singleagent.environment.extensions.EnvironmentServerInterface;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.logging.XMLFormatter;
+import java.util.Random;
 
 /**
  * @author James L. Weaver (Twitter: @JavaFXpert)
  */
 public class TicTacToeEnv implements Environment, EnvironmentServerInterface {
-  private static int WIN_REWARD = 10;
-  private static int LOSE_REWARD = -10;
-  private static int MOVE_REWARD = -1;
+  static final int WIN_REWARD = 10;
+  static final int LOSE_REWARD = -10;
+  static final int MOVE_REWARD = -1;
 
   /**
-   * String representation of cells on the game board.
-   * For example: "XOIIXOXIO"
+   * Cells on the game board occupied by X and by O, where bit n corresponds to cell n
    */
-  private StringBuffer gameBoard;
+  private int xMask;
+  private int oMask;
 
   /**
    * Game status, specifically, whether the game is in-progress, or if X won,
-   * or if O won, or if it is cat's game (nobody won).
+   * or if O won, or if it is cat's game (nobody won).  One of the TicTacToeBoard.STATUS_* codes.
    */
-  private String gameStatus;
+  private int gameStatus;
 
   /**
    * Indicates whether the the game is in the terminal state
@@ -74,19 +73,42 @@ public class TicTacToeEnv implements Environment, EnvironmentServerInterface {
    */
   private char opposingPlayerMark = TicTacToeState.X_MARK;
 
+  /**
+   * Counters of game outcomes, from the point of view of the opposing player (the agent)
+   */
+  private TicTacToeMetrics metrics = new TicTacToeMetrics();
+
+  /**
+   * Strategy with which the player embedded in the environment chooses its moves
+   */
+  private OpponentStrategy opponentStrategy;
+
+  private final Random rand;
+
   public TicTacToeEnv() {
+    this(OpponentStrategies.WIN_OR_BLOCK_OR_CENTER_OR_CORNER_OR_RANDOM);
+  }
+
+  public TicTacToeEnv(OpponentStrategy opponentStrategy) {
+    this(opponentStrategy, new Random());
+  }
+
+  public TicTacToeEnv(OpponentStrategy opponentStrategy, Random rand) {
+    this.opponentStrategy = opponentStrategy;
+    this.rand = rand;
     resetEnvironment();
   }
 
   @Override
   public void resetEnvironment() {
-    gameBoard = new StringBuffer(TicTacToeState.EMPTY_BOARD);
+    xMask = 0;
+    oMask = 0;
     if (envPlayerMark == TicTacToeState.X_MARK) {
-      playRandomCell();
+      markCell(OpponentStrategies.RANDOM.chooseCell(boardIndex(), envPlayerMark, rand), envPlayerMark);
     }
-    gameStatus = TicTacToeState.GAME_STATUS_IN_PROGRESS;
+    gameStatus = TicTacToeBoard.STATUS_IN_PROGRESS;
 
-    currentObservationState = new TicTacToeState(gameBoard.toString(), gameStatus);
+    currentObservationState = TicTacToeStateRegistry.state(xMask, oMask, gameStatus);
 
     terminated = false;
   }
@@ -124,34 +146,35 @@ public class TicTacToeEnv implements Environment, EnvironmentServerInterface {
   public EnvironmentOutcome executeAction(Action action) {
     MoveAction moveAction = (MoveAction)action;
 
-    TicTacToeState priorState = new TicTacToeState(gameBoard.toString(), gameStatus);
+    TicTacToeState priorState = TicTacToeStateRegistry.state(xMask, oMask, gameStatus);
 
     // actionId is the same as the cell number (0 - 8) of the move
     int cellNum = moveAction.getActionId();
 
+    metrics.recordStep();
+
     if (cellNum < 0 || cellNum >= TicTacToeState.NUM_CELLS ||
-        (gameBoard.charAt(cellNum) != TicTacToeState.EMPTY)) {
+        !isEmptyCell(cellNum)) {
 
       // Illegal move attempted so don't change
-      System.out.println("Illegal move attempted to cell " + cellNum);
+      metrics.recordIllegalMove();
     }
     else {
-      gameBoard.setCharAt(cellNum, opposingPlayerMark);
+      markCell(cellNum, opposingPlayerMark);
     }
 
     gameStatus = evalGameStatus();
-    //if (gameStatus.equals(envPlayerMark)) {
-    if (gameStatus.toCharArray()[0] == envPlayerMark) {
+    if (gameStatus == TicTacToeBoard.winStatus(envPlayerMark)) {
       reward = LOSE_REWARD;
       terminated = true;
     }
-    else if (gameStatus.toCharArray()[0] == opposingPlayerMark) {
+    else if (gameStatus == TicTacToeBoard.winStatus(opposingPlayerMark)) {
 
       // TODO: Consider removing this condition, as it doen't seem possible to encounter
       reward = WIN_REWARD;
       terminated = true;
     }
-    else if (gameStatus.equals(TicTacToeState.GAME_STATUS_CATS_GAME)) {
+    else if (gameStatus == TicTacToeBoard.STATUS_CATS_GAME) {
       reward = MOVE_REWARD;
       terminated = true;
     }
@@ -159,42 +182,31 @@ public class TicTacToeEnv implements Environment, EnvironmentServerInterface {
       reward = MOVE_REWARD;
       terminated = false;
 
-      // Uncomment to employ a strategy of playing the first empty cell with an "O"
-      //playFirstEmptyCell();
-
-      // Uncomment to employ a strategy of playing a completely random empty cell with an "O"
-      //playRandomCell();
-
-      // Uncomment to employ a strategy that randomly places "O" except when there are opportunities to block an "X" three-in-a row
-      //blockOrPlayRandom();
-
-      // Uncomment to employ a strategy that randomly places "O" except when
-      // there are opportunities to play third "O" in a row, or to block an "X" three-in-a row
-      //winOrblockOrPlayRandom();
-
-      // Uncomment to employ a strategy that prefers center and random corner placement,
-      // except when there are opportunities to play a third "O" in a row, or block an "X" three-in-a row
-      winOrBlockOrCenterOrRandomCornerOrPlayRandom();
+      playOpponentMove();
 
       gameStatus = evalGameStatus();  // Evaluate game status after opposing player has responded, and update terminated state
-      if (gameStatus.toCharArray()[0] == envPlayerMark) {
+      if (gameStatus == TicTacToeBoard.winStatus(envPlayerMark)) {
         reward = LOSE_REWARD;
         terminated = true;
       }
-      else if (gameStatus.toCharArray()[0] == opposingPlayerMark) {
+      else if (gameStatus == TicTacToeBoard.winStatus(opposingPlayerMark)) {
 
         // TODO: Consider removing this condition, as it doen't seem possible to encounter
         reward = WIN_REWARD;
         terminated = true;
       }
-      else if (gameStatus.equals(TicTacToeState.GAME_STATUS_CATS_GAME)) {
+      else if (gameStatus == TicTacToeBoard.STATUS_CATS_GAME) {
         // TODO: Consider removing this condition, as it doen't seem possible to encounter
         reward = MOVE_REWARD;
         terminated = true;
       }
     }
 
-    TicTacToeState newState = new TicTacToeState(gameBoard.toString(), gameStatus);
+    if (terminated) {
+      recordOutcome();
+    }
+
+    TicTacToeState newState = TicTacToeStateRegistry.state(xMask, oMask, gameStatus);
 
     currentObservationState = newState.copy();
 
@@ -229,316 +241,92 @@ public class TicTacToeEnv implements Environment, EnvironmentServerInterface {
     resetEnvironment();
   }
 
-  /**
-   * Evaluate the status of the game (in-progress, or who won)
-   *
-   * @return Indicator of in-progress, or who won
-   */
-  private String evalGameStatus() {
-    // Start with the assumption that all cells are occupied but nobody won
-    String gameStatus = TicTacToeState.GAME_STATUS_CATS_GAME;
-
-    // Check if this game is still in progress
-    for (int idx = 0; idx < TicTacToeState.NUM_CELLS; idx++) {
-      if (gameBoard.charAt(idx) ==  TicTacToeState.EMPTY) {
-        gameStatus = TicTacToeState.GAME_STATUS_IN_PROGRESS;
-        break;
-      }
-    }
-
-    // Check if X won
-    if ((gameBoard.charAt(0) == TicTacToeState.X_MARK && gameBoard.charAt(1) == TicTacToeState.X_MARK && gameBoard.charAt(2) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(3) == TicTacToeState.X_MARK && gameBoard.charAt(4) == TicTacToeState.X_MARK && gameBoard.charAt(5) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(6) == TicTacToeState.X_MARK && gameBoard.charAt(7) == TicTacToeState.X_MARK && gameBoard.charAt(8) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(0) == TicTacToeState.X_MARK && gameBoard.charAt(3) == TicTacToeState.X_MARK && gameBoard.charAt(6) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(1) == TicTacToeState.X_MARK && gameBoard.charAt(4) == TicTacToeState.X_MARK && gameBoard.charAt(7) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(2) == TicTacToeState.X_MARK && gameBoard.charAt(5) == TicTacToeState.X_MARK && gameBoard.charAt(8) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(0) == TicTacToeState.X_MARK && gameBoard.charAt(4) == TicTacToeState.X_MARK && gameBoard.charAt(8) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(2) == TicTacToeState.X_MARK && gameBoard.charAt(4) == TicTacToeState.X_MARK && gameBoard.charAt(6) == TicTacToeState.X_MARK)) {
-      gameStatus = TicTacToeState.GAME_STATUS_X_WON;
-      //System.out.println("X won");
-      System.out.print(envPlayerMark == TicTacToeState.O_MARK ? "X" : "x");
-    }
-    else if ((gameBoard.charAt(0) == TicTacToeState.O_MARK && gameBoard.charAt(1) == TicTacToeState.O_MARK && gameBoard.charAt(2) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(3) == TicTacToeState.O_MARK && gameBoard.charAt(4) == TicTacToeState.O_MARK && gameBoard.charAt(5) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(6) == TicTacToeState.O_MARK && gameBoard.charAt(7) == TicTacToeState.O_MARK && gameBoard.charAt(8) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(0) == TicTacToeState.O_MARK && gameBoard.charAt(3) == TicTacToeState.O_MARK && gameBoard.charAt(6) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(1) == TicTacToeState.O_MARK && gameBoard.charAt(4) == TicTacToeState.O_MARK && gameBoard.charAt(7) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(2) == TicTacToeState.O_MARK && gameBoard.charAt(5) == TicTacToeState.O_MARK && gameBoard.charAt(8) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(0) == TicTacToeState.O_MARK && gameBoard.charAt(4) == TicTacToeState.O_MARK && gameBoard.charAt(8) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(2) == TicTacToeState.O_MARK && gameBoard.charAt(4) == TicTacToeState.O_MARK && gameBoard.charAt(6) == TicTacToeState.O_MARK)) {
-      gameStatus = TicTacToeState.GAME_STATUS_O_WON;
-      //System.out.println("O won");
-      System.out.print(envPlayerMark == TicTacToeState.X_MARK ? "O" : "o");
-    }
-
-    if (gameStatus.equals(TicTacToeState.GAME_STATUS_CATS_GAME)) {
-      //System.out.println("Cat's game");
-      System.out.print(".");
-    }
-    return gameStatus;
+  public OpponentStrategy getOpponentStrategy() {
+    return opponentStrategy;
   }
 
   /**
-   * Simple strategy that plays the first empty cell
+   * Change the strategy of the player embedded in the environment, for example to
+   * OpponentStrategies.PERFECT, or to a chain such as
+   * OpponentStrategies.WIN.orElse(OpponentStrategies.BLOCK).orElse(OpponentStrategies.RANDOM)
    */
-  private void playFirstEmptyCell() {
-    gameBoard.setCharAt(gameBoard.indexOf(Character.toString(TicTacToeState.EMPTY)), envPlayerMark);
+  public void setOpponentStrategy(OpponentStrategy opponentStrategy) {
+    this.opponentStrategy = opponentStrategy;
+  }
+
+  public TicTacToeMetrics getMetrics() {
+    return metrics;
   }
 
   /**
-   * Simple strategy that plays a completely random empty cell
+   * Replace the counters of game outcomes, for example with ones shared by several environments
    */
-  private void playRandomCell() {
-    boolean played = false;
-    while (!played) {
-      int proposedCellIndex = (int)(Math.random() * TicTacToeState.NUM_CELLS);
-      if (gameBoard.charAt(proposedCellIndex) == TicTacToeState.EMPTY) {
-        gameBoard.setCharAt(proposedCellIndex, envPlayerMark);
-        played = true;
-      }
-    }
+  public void setMetrics(TicTacToeMetrics metrics) {
+    this.metrics = metrics;
   }
 
   /**
-   * Strategy that randomly places its mark except when there are opportunities to block a three-in-a row
+   * Evaluate the status of the game (in-progress, or who won)
+   *
+   * @return Indicator of in-progress, or who won
    */
-  private void blockOrPlayRandom() {
-    int cellIndexToPlay = evalGameboardForBlock();
-    if (cellIndexToPlay != -1) {
-      gameBoard.setCharAt(cellIndexToPlay, envPlayerMark);
-    }
-    else {
-      playRandomCell();
-    }
+  private int evalGameStatus() {
+    return TicTacToePositionTable.status(boardIndex());
   }
 
   /**
-   * Strategy that randomly places it mark except when there are opportunities to
-   * play third mark in a row, or to block a three-in-a row
+   * Count the outcome of the game that has just finished
    */
-  private void winOrblockOrPlayRandom() {
-    int cellIndexToPlay = evalGameboardForWin();
-    if (cellIndexToPlay != -1) {
-      gameBoard.setCharAt(cellIndexToPlay, envPlayerMark);
-      return;
+  private void recordOutcome() {
+    if (gameStatus == TicTacToeBoard.winStatus(opposingPlayerMark)) {
+      metrics.recordWin();
     }
-    cellIndexToPlay = evalGameboardForBlock();
-    if (cellIndexToPlay != -1) {
-      gameBoard.setCharAt(cellIndexToPlay, envPlayerMark);
+    else if (gameStatus == TicTacToeBoard.winStatus(envPlayerMark)) {
+      metrics.recordLoss();
     }
     else {
-      playRandomCell();
+      metrics.recordDraw();
     }
   }
 
   /**
-   * Strategy that prefers center or random corner placement, except when
-   * there are opportunities to play a third mark in a row, or block a three-in-a-row
-   * TODO: Refactor to remove repeating code
+   * @return Base-3 index of the game board, for lookups in TicTacToePositionTable
    */
-  private void winOrBlockOrCenterOrRandomCornerOrPlayRandom() {
-    int cellIndexToPlay = evalGameboardForWin();
-    if (cellIndexToPlay != -1) {
-      gameBoard.setCharAt(cellIndexToPlay, envPlayerMark);
-      return;
-    }
-    cellIndexToPlay = evalGameboardForBlock();
-    if (cellIndexToPlay != -1) {
-      gameBoard.setCharAt(cellIndexToPlay, envPlayerMark);
-    }
-    else {
-      playRandomCornerOrCenterOrRandomCell();
-    }
+  private int boardIndex() {
+    return TicTacToeBoard.index(xMask, oMask);
   }
 
   /**
-   * Play a random empty corner cell or center cell.
-   * Note that a counter is used to attempt that number of random
-   * placements, in case none of the corners or center cell is empty.
+   * @return Mask of the cells on the game board that are not occupied
    */
-  private void playRandomCornerOrCenterOrRandomCell() {
-    boolean played = false;
-    int counter = 0;
-    while (!played && counter < 100) {
-      // Randomly choose 0, 2, 4, 6, 8 (corners or center)
-      int proposedCellIndex = (int)(Math.random() * 5) * 2;
-      if (gameBoard.charAt(proposedCellIndex) == TicTacToeState.EMPTY) {
-        gameBoard.setCharAt(proposedCellIndex, envPlayerMark);
-        played = true;
-      }
-      counter++;
-    }
-    if (!played) {
-      playRandomCell();
-    }
+  private int emptyMask() {
+    return ~(xMask | oMask) & TicTacToeBoard.FULL_MASK;
+  }
+
+  private boolean isEmptyCell(int cellNum) {
+    return (emptyMask() & (1 << cellNum)) != 0;
   }
 
   /**
-   * Evaluate the gameboard for an opportunity to block opposing player three-in-a row
-   * TODO: Modify with a less brute-force, and less verbose, approach.  Possibly factor with evalGameboardForWin() method
-   *
-   * @return Zero-based index of cell that would block, or -1 if no cells apply
+   * Place a mark in the given cell of the game board
    */
-  private int evalGameboardForBlock() {
-    int blockingPlay = -1;
-    if (gameBoard.charAt(0) == opposingPlayerMark && gameBoard.charAt(1) == opposingPlayerMark && gameBoard.charAt(2) == TicTacToeState.EMPTY) {
-      blockingPlay = 2;
+  private void markCell(int cellNum, char mark) {
+    if (mark == TicTacToeState.X_MARK) {
+      xMask |= 1 << cellNum;
     }
-    else if (gameBoard.charAt(0) == opposingPlayerMark && gameBoard.charAt(1) == TicTacToeState.EMPTY && gameBoard.charAt(2) == opposingPlayerMark) {
-      blockingPlay = 1;
-    }
-    else if (gameBoard.charAt(0) == TicTacToeState.EMPTY && gameBoard.charAt(1) == opposingPlayerMark && gameBoard.charAt(2) == opposingPlayerMark) {
-      blockingPlay = 0;
-    }
-    else if (gameBoard.charAt(3) == opposingPlayerMark && gameBoard.charAt(4) == opposingPlayerMark && gameBoard.charAt(5) == TicTacToeState.EMPTY) {
-      blockingPlay = 5;
-    }
-    else if (gameBoard.charAt(3) == opposingPlayerMark && gameBoard.charAt(4) == TicTacToeState.EMPTY && gameBoard.charAt(5) == opposingPlayerMark) {
-      blockingPlay = 4;
-    }
-    else if (gameBoard.charAt(3) == TicTacToeState.EMPTY && gameBoard.charAt(4) == opposingPlayerMark && gameBoard.charAt(5) == opposingPlayerMark) {
-      blockingPlay = 3;
-    }
-    else if (gameBoard.charAt(6) == opposingPlayerMark && gameBoard.charAt(7) == opposingPlayerMark && gameBoard.charAt(8) == TicTacToeState.EMPTY) {
-      blockingPlay = 8;
-    }
-    else if (gameBoard.charAt(6) == opposingPlayerMark && gameBoard.charAt(7) == TicTacToeState.EMPTY && gameBoard.charAt(8) == opposingPlayerMark) {
-      blockingPlay = 7;
-    }
-    else if (gameBoard.charAt(6) == TicTacToeState.EMPTY && gameBoard.charAt(7) == opposingPlayerMark && gameBoard.charAt(8) == opposingPlayerMark) {
-      blockingPlay = 6;
-    }
-    else if (gameBoard.charAt(0) == opposingPlayerMark && gameBoard.charAt(3) == opposingPlayerMark && gameBoard.charAt(6) == TicTacToeState.EMPTY) {
-      blockingPlay = 6;
-    }
-    else if (gameBoard.charAt(0) == opposingPlayerMark && gameBoard.charAt(3) == TicTacToeState.EMPTY && gameBoard.charAt(6) == opposingPlayerMark) {
-      blockingPlay = 3;
-    }
-    else if (gameBoard.charAt(0) == TicTacToeState.EMPTY && gameBoard.charAt(3) == opposingPlayerMark && gameBoard.charAt(6) == opposingPlayerMark) {
-      blockingPlay = 0;
-    }
-    else if (gameBoard.charAt(1) == opposingPlayerMark && gameBoard.charAt(4) == opposingPlayerMark && gameBoard.charAt(7) == TicTacToeState.EMPTY) {
-      blockingPlay = 7;
-    }
-    else if (gameBoard.charAt(1) == opposingPlayerMark && gameBoard.charAt(4) == TicTacToeState.EMPTY && gameBoard.charAt(7) == opposingPlayerMark) {
-      blockingPlay = 4;
-    }
-    else if (gameBoard.charAt(1) == TicTacToeState.EMPTY && gameBoard.charAt(4) == opposingPlayerMark && gameBoard.charAt(7) == opposingPlayerMark) {
-      blockingPlay = 1;
-    }
-    else if (gameBoard.charAt(2) == opposingPlayerMark && gameBoard.charAt(5) == opposingPlayerMark && gameBoard.charAt(8) == TicTacToeState.EMPTY) {
-      blockingPlay = 8;
-    }
-    else if (gameBoard.charAt(2) == opposingPlayerMark && gameBoard.charAt(5) == TicTacToeState.EMPTY && gameBoard.charAt(8) == opposingPlayerMark) {
-      blockingPlay = 5;
-    }
-    else if (gameBoard.charAt(2) == TicTacToeState.EMPTY && gameBoard.charAt(5) == opposingPlayerMark && gameBoard.charAt(8) == opposingPlayerMark) {
-      blockingPlay = 2;
-    }
-    else if (gameBoard.charAt(0) == opposingPlayerMark && gameBoard.charAt(4) == opposingPlayerMark && gameBoard.charAt(8) == TicTacToeState.EMPTY) {
-      blockingPlay = 8;
-    }
-    else if (gameBoard.charAt(0) == opposingPlayerMark && gameBoard.charAt(4) == TicTacToeState.EMPTY && gameBoard.charAt(8) == opposingPlayerMark) {
-      blockingPlay = 4;
-    }
-    else if (gameBoard.charAt(0) == TicTacToeState.EMPTY && gameBoard.charAt(4) == opposingPlayerMark && gameBoard.charAt(8) == opposingPlayerMark) {
-      blockingPlay = 0;
-    }
-    else if (gameBoard.charAt(2) == opposingPlayerMark && gameBoard.charAt(4) == opposingPlayerMark && gameBoard.charAt(6) == TicTacToeState.EMPTY) {
-      blockingPlay = 6;
-    }
-    else if (gameBoard.charAt(2) == opposingPlayerMark && gameBoard.charAt(4) == TicTacToeState.EMPTY && gameBoard.charAt(6) == opposingPlayerMark) {
-      blockingPlay = 4;
-    }
-    else if (gameBoard.charAt(2) == TicTacToeState.EMPTY && gameBoard.charAt(4) == opposingPlayerMark && gameBoard.charAt(6) == opposingPlayerMark) {
-      blockingPlay = 2;
+    else {
+      oMask |= 1 << cellNum;
     }
-    return blockingPlay;
   }
 
   /**
-   * Evaluate the gameboard for an opportunity to get three-in-a row
-   * TODO: Modify with a less brute-force, and less verbose, approach.  Possibly factor with evalGameboardForBlock() method
-   *
-   * @return Zero-based index of cell that would win, or -1 if no cells apply
+   * Play the move chosen by the opponent strategy, or a random move if the strategy declines
    */
-  private int evalGameboardForWin() {
-    int winningPlay = -1;
-    if (gameBoard.charAt(0) == envPlayerMark && gameBoard.charAt(1) == envPlayerMark && gameBoard.charAt(2) == TicTacToeState.EMPTY) {
-      winningPlay = 2;
-    }
-    else if (gameBoard.charAt(0) == envPlayerMark && gameBoard.charAt(1) == TicTacToeState.EMPTY && gameBoard.charAt(2) == envPlayerMark) {
-      winningPlay = 1;
+  private void playOpponentMove() {
+    int cellNum = opponentStrategy.chooseCell(boardIndex(), envPlayerMark, rand);
+    if (cellNum == -1) {
+      cellNum = OpponentStrategies.RANDOM.chooseCell(boardIndex(), envPlayerMark, rand);
     }
-    else if (gameBoard.charAt(0) == TicTacToeState.EMPTY && gameBoard.charAt(1) == envPlayerMark && gameBoard.charAt(2) == envPlayerMark) {
-      winningPlay = 0;
-    }
-    else if (gameBoard.charAt(3) == envPlayerMark && gameBoard.charAt(4) == envPlayerMark && gameBoard.charAt(5) == TicTacToeState.EMPTY) {
-      winningPlay = 5;
-    }
-    else if (gameBoard.charAt(3) == envPlayerMark && gameBoard.charAt(4) == TicTacToeState.EMPTY && gameBoard.charAt(5) == envPlayerMark) {
-      winningPlay = 4;
-    }
-    else if (gameBoard.charAt(3) == TicTacToeState.EMPTY && gameBoard.charAt(4) == envPlayerMark && gameBoard.charAt(5) == envPlayerMark) {
-      winningPlay = 3;
-    }
-    else if (gameBoard.charAt(6) == envPlayerMark && gameBoard.charAt(7) == envPlayerMark && gameBoard.charAt(8) == TicTacToeState.EMPTY) {
-      winningPlay = 8;
-    }
-    else if (gameBoard.charAt(6) == envPlayerMark && gameBoard.charAt(7) == TicTacToeState.EMPTY && gameBoard.charAt(8) == envPlayerMark) {
-      winningPlay = 7;
-    }
-    else if (gameBoard.charAt(6) == TicTacToeState.EMPTY && gameBoard.charAt(7) == envPlayerMark && gameBoard.charAt(8) == envPlayerMark) {
-      winningPlay = 6;
-    }
-    else if (gameBoard.charAt(0) == envPlayerMark && gameBoard.charAt(3) == envPlayerMark && gameBoard.charAt(6) == TicTacToeState.EMPTY) {
-      winningPlay = 6;
-    }
-    else if (gameBoard.charAt(0) == envPlayerMark && gameBoard.charAt(3) == TicTacToeState.EMPTY && gameBoard.charAt(6) == envPlayerMark) {
-      winningPlay = 3;
-    }
-    else if (gameBoard.charAt(0) == TicTacToeState.EMPTY && gameBoard.charAt(3) == envPlayerMark && gameBoard.charAt(6) == envPlayerMark) {
-      winningPlay = 0;
-    }
-    else if (gameBoard.charAt(1) == envPlayerMark && gameBoard.charAt(4) == envPlayerMark && gameBoard.charAt(7) == TicTacToeState.EMPTY) {
-      winningPlay = 7;
-    }
-    else if (gameBoard.charAt(1) == envPlayerMark && gameBoard.charAt(4) == TicTacToeState.EMPTY && gameBoard.charAt(7) == envPlayerMark) {
-      winningPlay = 4;
-    }
-    else if (gameBoard.charAt(1) == TicTacToeState.EMPTY && gameBoard.charAt(4) == envPlayerMark && gameBoard.charAt(7) == envPlayerMark) {
-      winningPlay = 1;
-    }
-    else if (gameBoard.charAt(2) == envPlayerMark && gameBoard.charAt(5) == envPlayerMark && gameBoard.charAt(8) == TicTacToeState.EMPTY) {
-      winningPlay = 8;
-    }
-    else if (gameBoard.charAt(2) == envPlayerMark && gameBoard.charAt(5) == TicTacToeState.EMPTY && gameBoard.charAt(8) == envPlayerMark) {
-      winningPlay = 5;
-    }
-    else if (gameBoard.charAt(2) == TicTacToeState.EMPTY && gameBoard.charAt(5) == envPlayerMark && gameBoard.charAt(8) == envPlayerMark) {
-      winningPlay = 2;
-    }
-    else if (gameBoard.charAt(0) == envPlayerMark && gameBoard.charAt(4) == envPlayerMark && gameBoard.charAt(8) == TicTacToeState.EMPTY) {
-      winningPlay = 8;
-    }
-    else if (gameBoard.charAt(0) == envPlayerMark && gameBoard.charAt(4) == TicTacToeState.EMPTY && gameBoard.charAt(8) == envPlayerMark) {
-      winningPlay = 4;
-    }
-    else if (gameBoard.charAt(0) == TicTacToeState.EMPTY && gameBoard.charAt(4) == envPlayerMark && gameBoard.charAt(8) == envPlayerMark) {
-      winningPlay = 0;
-    }
-    else if (gameBoard.charAt(2) == envPlayerMark && gameBoard.charAt(4) == envPlayerMark && gameBoard.charAt(6) == TicTacToeState.EMPTY) {
-      winningPlay = 6;
-    }
-    else if (gameBoard.charAt(2) == envPlayerMark && gameBoard.charAt(4) == TicTacToeState.EMPTY && gameBoard.charAt(6) == envPlayerMark) {
-      winningPlay = 4;
-    }
-    else if (gameBoard.charAt(2) == TicTacToeState.EMPTY && gameBoard.charAt(4) == envPlayerMark && gameBoard.charAt(6) == envPlayerMark) {
-      winningPlay = 2;
-    }
-    return winningPlay;
+    markCell(cellNum, envPlayerMark);
   }
-
-
 }
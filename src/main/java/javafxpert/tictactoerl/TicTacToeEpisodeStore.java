@@ -0,0 +1,280 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.singleagent.Episode;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Compact binary store of tic-tac-toe episodes played in a TicTacToeEnv.  Since an
+ * episode is fully determined by the cells played, each game is kept as a few bytes:
+ *
+ * <pre>
+ *   byte 0:  bit 7 set if the agent plays O, bits 0-6 the number of marks on the initial board
+ *   byte 1:  number of cells played, including those on the initial board
+ *   byte 2:  final game status (one of the TicTacToeBoard.STATUS_* codes)
+ *   byte 3+: the cells played: the initial board's X marks then O marks, then each agent
+ *            move followed by the opponent's reply (when the game is still in progress)
+ * </pre>
+ *
+ * A separate index file holds the offset of each game as a long, so that a memory-mapped
+ * Reader can rebuild any episode's TicTacToeState sequence on demand.  Rewards are rebuilt
+ * according to TicTacToeEnv's reward scheme.  Each file is limited to 2GB, which holds
+ * well over a hundred million games.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public final class TicTacToeEpisodeStore {
+  public static final String DATA_FILE_EXTENSION = ".ttt";
+  public static final String INDEX_FILE_EXTENSION = ".idx";
+
+  private static final int AGENT_PLAYS_O_FLAG = 0x80;
+  private static final int HEADER_BYTES = 3;
+
+  private TicTacToeEpisodeStore() {
+  }
+
+  /**
+   * Create a new (empty) store, replacing any existing store with the same base path
+   *
+   * @param basePath Path of the store's files, without their extensions
+   */
+  public static Writer create(String basePath) throws IOException {
+    return new Writer(basePath);
+  }
+
+  /**
+   * Open an existing store for reading
+   *
+   * @param basePath Path of the store's files, without their extensions
+   */
+  public static Reader open(String basePath) throws IOException {
+    return new Reader(basePath);
+  }
+
+  /**
+   * Appends episodes to a store.  As an EpisodeLog, it may be used with an AsyncEpisodeWriter.
+   */
+  public static class Writer implements EpisodeLog {
+    private final DataOutputStream data;
+    private final DataOutputStream index;
+    private long offset = 0;
+
+    /**
+     * Reusable buffer for the cells played in an episode
+     */
+    private final byte[] cells = new byte[Byte.MAX_VALUE];
+
+    private Writer(String basePath) throws IOException {
+      Path dataPath = Paths.get(basePath + DATA_FILE_EXTENSION);
+      if (dataPath.getParent() != null) {
+        Files.createDirectories(dataPath.getParent());
+      }
+      data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dataPath)));
+      index = new DataOutputStream(new BufferedOutputStream(
+          Files.newOutputStream(Paths.get(basePath + INDEX_FILE_EXTENSION))));
+    }
+
+    @Override
+    public void append(List<Episode> episodes) throws IOException {
+      for (Episode episode : episodes) {
+        write(episode);
+      }
+      data.flush();
+      index.flush();
+    }
+
+    /**
+     * Encode an episode and append it to the store
+     */
+    public void write(Episode episode) throws IOException {
+      TicTacToeState initialState = (TicTacToeState)episode.state(0);
+      int xMask = initialState.xMask();
+      int oMask = initialState.oMask();
+      boolean agentPlaysO = Integer.bitCount(xMask) > Integer.bitCount(oMask);
+
+      int numCells = 0;
+      for (int marks = xMask; marks != 0; marks &= marks - 1) {
+        cells[numCells++] = (byte)Integer.numberOfTrailingZeros(marks);
+      }
+      for (int marks = oMask; marks != 0; marks &= marks - 1) {
+        cells[numCells++] = (byte)Integer.numberOfTrailingZeros(marks);
+      }
+      int numInitialCells = numCells;
+
+      for (int t = 0; t < episode.numActions(); t++) {
+        int cell = ((MoveAction)episode.action(t)).getActionId();
+        cells[numCells++] = (byte)cell;
+        if ((~(xMask | oMask) & (1 << cell)) != 0) {
+          if (agentPlaysO) {
+            oMask |= 1 << cell;
+          }
+          else {
+            xMask |= 1 << cell;
+          }
+        }
+
+        TicTacToeState nextState = (TicTacToeState)episode.state(t + 1);
+        int replyMask = (nextState.xMask() | nextState.oMask()) & ~(xMask | oMask);
+        if (replyMask != 0) {
+          cells[numCells++] = (byte)Integer.numberOfTrailingZeros(replyMask);
+        }
+        xMask = nextState.xMask();
+        oMask = nextState.oMask();
+      }
+
+      index.writeLong(offset);
+      data.writeByte((agentPlaysO ? AGENT_PLAYS_O_FLAG : 0) | numInitialCells);
+      data.writeByte(numCells);
+      data.writeByte(TicTacToeBoard.evalStatus(xMask, oMask));
+      data.write(cells, 0, numCells);
+      offset += HEADER_BYTES + numCells;
+    }
+
+    @Override
+    public void close() throws IOException {
+      data.close();
+      index.close();
+    }
+  }
+
+  /**
+   * Provides random access to the episodes in a store through memory-mapped files
+   */
+  public static class Reader implements Closeable {
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final MappedByteBuffer data;
+    private final MappedByteBuffer index;
+
+    private Reader(String basePath) throws IOException {
+      dataChannel = FileChannel.open(Paths.get(basePath + DATA_FILE_EXTENSION), StandardOpenOption.READ);
+      indexChannel = FileChannel.open(Paths.get(basePath + INDEX_FILE_EXTENSION), StandardOpenOption.READ);
+      data = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, dataChannel.size());
+      index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+    }
+
+    /**
+     * @return Number of episodes in the store
+     */
+    public int size() {
+      return index.capacity() / Long.BYTES;
+    }
+
+    /**
+     * @return The final game status (one of the TicTacToeBoard.STATUS_* codes) of an episode
+     */
+    public int outcome(int episodeNum) {
+      return data.get(offset(episodeNum) + 2);
+    }
+
+    /**
+     * Rebuild an episode, with the states, actions and rewards that TicTacToeEnv would have produced
+     */
+    public Episode episode(int episodeNum) {
+      int offset = offset(episodeNum);
+      int flags = data.get(offset) & 0xFF;
+      boolean agentPlaysO = (flags & AGENT_PLAYS_O_FLAG) != 0;
+      int numInitialCells = flags & ~AGENT_PLAYS_O_FLAG;
+      int numCells = data.get(offset + 1);
+      int pos = offset + HEADER_BYTES;
+      int end = pos + numCells;
+
+      // X moves first, so the initial board holds either as many X marks as O marks, or one more
+      int xMask = 0;
+      int oMask = 0;
+      int numInitialX = (numInitialCells + 1) / 2;
+      for (int i = 0; i < numInitialCells; i++) {
+        if (i < numInitialX) {
+          xMask |= 1 << data.get(pos++);
+        }
+        else {
+          oMask |= 1 << data.get(pos++);
+        }
+      }
+
+      char agentMark = agentPlaysO ? TicTacToeState.O_MARK : TicTacToeState.X_MARK;
+      Episode episode = new Episode(TicTacToeStateRegistry.state(xMask, oMask, TicTacToeBoard.evalStatus(xMask, oMask)));
+      while (pos < end) {
+        int cell = data.get(pos++);
+        int cellBit = 1 << cell;
+        if ((~(xMask | oMask) & cellBit) != 0) {
+          if (agentPlaysO) {
+            oMask |= cellBit;
+          }
+          else {
+            xMask |= cellBit;
+          }
+        }
+        if (TicTacToeBoard.evalStatus(xMask, oMask) == TicTacToeBoard.STATUS_IN_PROGRESS && pos < end) {
+          int replyBit = 1 << data.get(pos++);
+          if (agentPlaysO) {
+            xMask |= replyBit;
+          }
+          else {
+            oMask |= replyBit;
+          }
+        }
+
+        int status = TicTacToeBoard.evalStatus(xMask, oMask);
+        double reward = status == TicTacToeBoard.winStatus(agentMark) ? TicTacToeEnv.WIN_REWARD :
+            status == TicTacToeBoard.STATUS_X_WON || status == TicTacToeBoard.STATUS_O_WON ?
+                TicTacToeEnv.LOSE_REWARD : TicTacToeEnv.MOVE_REWARD;
+        episode.transition(MoveAction.forCell(cell), TicTacToeStateRegistry.state(xMask, oMask, status), reward);
+      }
+      return episode;
+    }
+
+    /**
+     * @return A read-only list view of the episodes, which are rebuilt only as they are accessed
+     */
+    public List<Episode> episodes() {
+      return new AbstractList<Episode>() {
+        @Override
+        public Episode get(int episodeNum) {
+          return episode(episodeNum);
+        }
+
+        @Override
+        public int size() {
+          return Reader.this.size();
+        }
+      };
+    }
+
+    private int offset(int episodeNum) {
+      return (int)index.getLong(episodeNum * Long.BYTES);
+    }
+
+    @Override
+    public void close() throws IOException {
+      dataChannel.close();
+      indexChannel.close();
+    }
+  }
+}
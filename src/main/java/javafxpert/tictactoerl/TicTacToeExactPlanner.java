@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.policy.Policy;
+
+import java.util.Arrays;
+
+/**
+ * Computes the optimal Q-values of the agent against an opponent strategy whose move
+ * probabilities are known (see ExactOpponentStrategy), without any learning.
+ * The MDP is the one that TicTacToeEnv presents to the agent: a step is the agent's move
+ * followed by the opponent's reply, with the same rewards.  Since every step adds two marks
+ * to the board, the MDP has no cycles, so one sweep of backward induction over the reachable
+ * boards, from the layer with the most marks to the layer with the fewest, solves it exactly.
+ *
+ * The agent moves on boards with an even number of marks when it plays X, and an odd number
+ * when it plays O, so the Q-values for both marks are computed into the same table, as
+ * TicTacToeQPlaying trains a single agent to play both.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeExactPlanner {
+  private final ExactOpponentStrategy opponentStrategy;
+  private final double gamma;
+
+  /**
+   * Optimal value of each board on which the agent is to move
+   */
+  private final double[] values = new double[TicTacToeBoard.NUM_POSITIONS];
+
+  /**
+   * Reusable buffer for the probabilities of the opponent's replies
+   */
+  private final double[] replyProbabilities = new double[TicTacToeState.NUM_CELLS];
+
+  public TicTacToeExactPlanner(ExactOpponentStrategy opponentStrategy, double gamma) {
+    this.opponentStrategy = opponentStrategy;
+    this.gamma = gamma;
+  }
+
+  /**
+   * Solve for the optimal Q-values of every reachable board on which the game is in progress.
+   * Q-values of occupied cells, and of boards that can't be reached, are zero.
+   */
+  public TicTacToeQTable solve() {
+    TicTacToeQTable qTable = new TicTacToeQTable(0.);
+    Arrays.fill(values, 0.);
+
+    int[][] layers = reachableLayers();
+    for (int numMarks = TicTacToeState.NUM_CELLS - 1; numMarks >= 0; numMarks--) {
+      char agentMark = numMarks % 2 == 0 ? TicTacToeState.X_MARK : TicTacToeState.O_MARK;
+      for (int boardIndex : layers[numMarks]) {
+        double bestQ = Double.NEGATIVE_INFINITY;
+        for (int cells = TicTacToePositionTable.emptyMask(boardIndex); cells != 0; cells &= cells - 1) {
+          int cell = Integer.numberOfTrailingZeros(cells);
+          double q = qValue(boardIndex, cell, agentMark);
+          qTable.setQValue(boardIndex, cell, q);
+          bestQ = Math.max(bestQ, q);
+        }
+        values[boardIndex] = bestQ;
+      }
+    }
+    return qTable;
+  }
+
+  /**
+   * @return Optimal value to the agent of the board at the given index, as of the last solve()
+   */
+  public double value(int boardIndex) {
+    return values[boardIndex];
+  }
+
+  /**
+   * Expected return of the agent playing the cell and then playing optimally, given the
+   * values of the boards two marks further on
+   */
+  private double qValue(int boardIndex, int cell, char agentMark) {
+    int xMask = TicTacToePositionTable.xMask(boardIndex);
+    int oMask = TicTacToePositionTable.oMask(boardIndex);
+    if (agentMark == TicTacToeState.X_MARK) {
+      xMask |= 1 << cell;
+    }
+    else {
+      oMask |= 1 << cell;
+    }
+
+    int moveIndex = TicTacToeBoard.index(xMask, oMask);
+    int moveStatus = TicTacToePositionTable.status(moveIndex);
+    if (moveStatus != TicTacToeBoard.STATUS_IN_PROGRESS) {
+      // Only the agent, having just moved, can have completed a three-in-a-row
+      return moveStatus == TicTacToeBoard.STATUS_CATS_GAME ? TicTacToeEnv.MOVE_REWARD : TicTacToeEnv.WIN_REWARD;
+    }
+
+    char envMark = agentMark == TicTacToeState.X_MARK ? TicTacToeState.O_MARK : TicTacToeState.X_MARK;
+    if (!opponentStrategy.cellProbabilities(moveIndex, envMark, replyProbabilities)) {
+      // As in TicTacToeEnv, the opponent plays randomly when its strategy declines
+      OpponentStrategies.RANDOM.cellProbabilities(moveIndex, envMark, replyProbabilities);
+    }
+
+    double q = 0.;
+    for (int reply = 0; reply < TicTacToeState.NUM_CELLS; reply++) {
+      double probability = replyProbabilities[reply];
+      if (probability == 0.) {
+        continue;
+      }
+      int replyIndex = envMark == TicTacToeState.X_MARK ?
+          TicTacToeBoard.index(xMask | 1 << reply, oMask) : TicTacToeBoard.index(xMask, oMask | 1 << reply);
+      int replyStatus = TicTacToePositionTable.status(replyIndex);
+      if (replyStatus == TicTacToeBoard.STATUS_IN_PROGRESS) {
+        q += probability * (TicTacToeEnv.MOVE_REWARD + gamma * values[replyIndex]);
+      }
+      else if (replyStatus == TicTacToeBoard.STATUS_CATS_GAME) {
+        q += probability * TicTacToeEnv.MOVE_REWARD;
+      }
+      else {
+        q += probability * TicTacToeEnv.LOSE_REWARD;
+      }
+    }
+    return q;
+  }
+
+  /**
+   * @return Indices of the reachable boards on which the game is in progress, grouped by number of marks
+   */
+  private static int[][] reachableLayers() {
+    int[] layerSizes = new int[TicTacToeState.NUM_CELLS];
+    int[][] layers = new int[TicTacToeState.NUM_CELLS][TicTacToeStateRegistry.size()];
+    for (int boardIndex = 0; boardIndex < TicTacToeBoard.NUM_POSITIONS; boardIndex++) {
+      if (TicTacToeStateRegistry.interned(boardIndex) != null &&
+          TicTacToePositionTable.status(boardIndex) == TicTacToeBoard.STATUS_IN_PROGRESS) {
+        int numMarks = TicTacToeState.NUM_CELLS - Integer.bitCount(TicTacToePositionTable.emptyMask(boardIndex));
+        layers[numMarks][layerSizes[numMarks]++] = boardIndex;
+      }
+    }
+    for (int numMarks = 0; numMarks < TicTacToeState.NUM_CELLS; numMarks++) {
+      layers[numMarks] = Arrays.copyOf(layers[numMarks], layerSizes[numMarks]);
+    }
+    return layers;
+  }
+
+  public static void main(String[] args) {
+    ExactOpponentStrategy opponentStrategy = OpponentStrategies.WIN_OR_BLOCK_OR_CENTER_OR_CORNER_OR_RANDOM;
+    //ExactOpponentStrategy opponentStrategy = OpponentStrategies.PERFECT;
+
+    long startNanos = System.nanoTime();
+    TicTacToeExactPlanner planner = new TicTacToeExactPlanner(opponentStrategy, 0.90);
+    TicTacToeQTable qTable = planner.solve();
+    System.out.println("Solved in " + (System.nanoTime() - startNanos) / 1000000 + " ms");
+    System.out.println("Value of the empty board to X: " + planner.value(0));
+
+    // Play the optimal policy against the same opponent, as both X and O
+    Policy policy = TicTacToeFrozenPolicy.compile(new TicTacToeDenseQLearning(qTable, 0.90, 0.));
+    for (char envPlayerMark : new char[] {TicTacToeState.O_MARK, TicTacToeState.X_MARK}) {
+      TicTacToeEnv env = new TicTacToeEnv(opponentStrategy);
+      env.setEnvPlayerMark(envPlayerMark);
+      for (int i = 0; i < 10000; i++) {
+        env.resetEnvironment();
+        while (!env.isInTerminalState()) {
+          env.executeAction(policy.action(env.currentObservation()));
+        }
+      }
+      System.out.println("Opponent plays " + envPlayerMark + ": " + env.getMetrics());
+    }
+  }
+}
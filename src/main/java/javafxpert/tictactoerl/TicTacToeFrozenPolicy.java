@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.policy.Policy;
+import burlap.behavior.valuefunction.QFunction;
+import burlap.mdp.core.action.Action;
+import burlap.mdp.core.state.State;
+
+import java.util.Arrays;
+
+/**
+ * Greedy policy compiled from a trained agent into a table holding the best cell for each
+ * of the 3^9 boards in the base-3 encoding of TicTacToeBoard.index().  Once compiled, the
+ * policy doesn't depend on the agent: each move is a single array lookup, with no locking
+ * and no allocation, so one instance can serve moves to any number of threads.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeFrozenPolicy implements Policy {
+  /**
+   * Best cell for each board index, or -1 where the game is over or the board isn't reachable
+   */
+  private final byte[] bestCells;
+
+  private TicTacToeFrozenPolicy(byte[] bestCells) {
+    this.bestCells = bestCells;
+  }
+
+  /**
+   * Compile the greedy policy of a Q-function, such as a trained QLearning or
+   * TicTacToeDenseQLearning agent.  Ties are broken in favor of the lowest numbered cell.
+   */
+  public static TicTacToeFrozenPolicy compile(QFunction qFunction) {
+    byte[] bestCells = new byte[TicTacToeBoard.NUM_POSITIONS];
+    Arrays.fill(bestCells, (byte)-1);
+    for (int boardIndex = 0; boardIndex < TicTacToeBoard.NUM_POSITIONS; boardIndex++) {
+      TicTacToeState state = TicTacToeStateRegistry.interned(boardIndex);
+      if (state != null && state.statusCode() == TicTacToeBoard.STATUS_IN_PROGRESS) {
+        int bestCell = -1;
+        double bestQ = Double.NEGATIVE_INFINITY;
+        for (int cells = state.emptyMask(); cells != 0; cells &= cells - 1) {
+          int cell = Integer.numberOfTrailingZeros(cells);
+          double q = qFunction.qValue(state, MoveAction.forCell(cell));
+          if (q > bestQ) {
+            bestQ = q;
+            bestCell = cell;
+          }
+        }
+        bestCells[boardIndex] = (byte)bestCell;
+      }
+    }
+    return new TicTacToeFrozenPolicy(bestCells);
+  }
+
+  /**
+   * @return The best cell (zero based 0-8) on the board with the given index, or -1 if there is no move to make
+   */
+  public int bestCell(int boardIndex) {
+    return bestCells[boardIndex];
+  }
+
+  /**
+   * @return The best cell (zero based 0-8) on the given board, or -1 if there is no move to make
+   */
+  public int bestCell(int xMask, int oMask) {
+    return bestCells[TicTacToeBoard.index(xMask, oMask)];
+  }
+
+  @Override
+  public Action action(State s) {
+    int cell = bestCells[((TicTacToeState)s).boardIndex()];
+    return cell != -1 ? MoveAction.forCell(cell) : null;
+  }
+
+  @Override
+  public double actionProb(State s, Action a) {
+    int cell = bestCells[((TicTacToeState)s).boardIndex()];
+    return cell != -1 && ((MoveAction)a).getActionId() == cell ? 1. : 0.;
+  }
+
+  @Override
+  public boolean definedFor(State s) {
+    TicTacToeState tttState = (TicTacToeState)s;
+    return tttState.statusCode() == TicTacToeBoard.STATUS_IN_PROGRESS && bestCells[tttState.boardIndex()] != -1;
+  }
+}
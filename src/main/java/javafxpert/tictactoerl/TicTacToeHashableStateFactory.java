@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.mdp.core.state.State;
+import burlap.statehashing.HashableState;
+import burlap.statehashing.HashableStateFactory;
+
+/**
+ * HashableStateFactory specialized for TicTacToeState.  The base-3 board index
+ * is a perfect hash (the game status is determined by the board), so hash codes
+ * never collide and equality is a single integer comparison.  Symmetric boards are
+ * distinct states here, because sharing Q-values among them requires the cells of the
+ * actions to be mapped as well, which TicTacToeDenseQLearning does when its symmetry
+ * mode is set.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeHashableStateFactory implements HashableStateFactory {
+  @Override
+  public HashableState hashState(State s) {
+    if (s instanceof TicTacToeHashableState) {
+      return (HashableState)s;
+    }
+    TicTacToeState tttState = (TicTacToeState)s;
+    return new TicTacToeHashableState(tttState, tttState.boardIndex());
+  }
+
+  /**
+   * HashableState that identifies a TicTacToeState by its board index
+   */
+  public static class TicTacToeHashableState implements HashableState {
+    private final TicTacToeState s;
+
+    /**
+     * Base-3 board index, captured when the state was hashed
+     */
+    private final int boardIndex;
+
+    public TicTacToeHashableState(TicTacToeState s, int boardIndex) {
+      this.s = s;
+      this.boardIndex = boardIndex;
+    }
+
+    @Override
+    public State s() {
+      return s;
+    }
+
+    public int boardIndex() {
+      return boardIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if(this == o) return true;
+      if(o == null || getClass() != o.getClass()) return false;
+
+      return boardIndex == ((TicTacToeHashableState) o).boardIndex;
+    }
+
+    @Override
+    public int hashCode() {
+      return boardIndex;
+    }
+
+    @Override
+    public String toString() {
+      return s.toString();
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Simple load generator for TicTacToeMoveServer.  A number of concurrent clients, each on its
+ * own (virtual, where supported) thread, send requests for the given duration, after which
+ * the throughput and latency percentiles are reported.  Latencies are counted in a shared
+ * histogram of fixed size, so memory doesn't grow with the number of clients or requests.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeLoadGenerator {
+  private static final int BATCH_SIZE = 100;
+
+  /**
+   * @param args Server URL (default http://localhost:8080), number of concurrent clients
+   *             (default 1000), duration in seconds (default 10), and mode: "move" (default),
+   *             "batch" (BATCH_SIZE boards per request) or "game" (whole games, one move per request)
+   */
+  public static void main(String[] args) throws Exception {
+    String url = args.length > 0 ? args[0] : "http://localhost:8080";
+    int numClients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+    String mode = args.length > 3 ? args[3] : "move";
+
+    ExecutorService clientExecutor = TicTacToeMoveServer.newRequestExecutor(numClients);
+    HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(30))
+        .executor(clientExecutor)
+        .build();
+    String[] boards = inProgressBoards();
+    LongAdder numRequests = new LongAdder();
+    LongAdder numErrors = new LongAdder();
+    LatencyHistogram latencies = new LatencyHistogram();
+    long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+    // Every client needs its own thread, as each sends requests until the end time
+    ExecutorService clients = TicTacToeMoveServer.newRequestExecutor(numClients);
+    for (int i = 0; i < numClients; i++) {
+      clients.execute(() -> {
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        while (System.nanoTime() < endTime) {
+          long startTime = System.nanoTime();
+          try {
+            if (mode.equals("game")) {
+              playGame(client, url, rand, numRequests);
+            }
+            else {
+              HttpRequest request;
+              if (mode.equals("batch")) {
+                StringBuilder body = new StringBuilder();
+                for (int b = 0; b < BATCH_SIZE; b++) {
+                  body.append(boards[rand.nextInt(boards.length)]).append('\n');
+                }
+                request = HttpRequest.newBuilder(URI.create(url + "/batch"))
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+              }
+              else {
+                request = HttpRequest.newBuilder(URI.create(url + "/move?board=" + boards[rand.nextInt(boards.length)])).build();
+              }
+              send(client, request);
+              numRequests.increment();
+            }
+          }
+          catch (Exception e) {
+            numErrors.increment();
+          }
+          latencies.record(System.nanoTime() - startTime);
+        }
+      });
+    }
+    clients.shutdown();
+    clients.awaitTermination(durationSeconds + 60, TimeUnit.SECONDS);
+    clientExecutor.shutdown();
+
+    System.out.println(mode + " with " + numClients + " clients: " +
+        numRequests.sum() / durationSeconds + " requests/sec, " + numErrors.sum() + " errors");
+    if (latencies.count() > 0) {
+      System.out.printf("latency%s: p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+          mode.equals("game") ? " per game" : "",
+          latencies.percentile(0.50) / 1e6, latencies.percentile(0.99) / 1e6, latencies.max() / 1e6);
+    }
+  }
+
+  /**
+   * Play a whole game, moving in a random empty cell each turn
+   */
+  private static void playGame(HttpClient client, String url, ThreadLocalRandom rand, LongAdder numRequests) throws Exception {
+    String[] created = send(client, HttpRequest.newBuilder(URI.create(url + "/game"))
+        .POST(HttpRequest.BodyPublishers.noBody()).build()).split(" ");
+    numRequests.increment();
+    String sessionId = created[0];
+    String board = created[1];
+    String status = created[2];
+    while (status.equals(TicTacToeState.GAME_STATUS_IN_PROGRESS)) {
+      int emptyMask = TicTacToeBoard.FULL_MASK & ~(TicTacToeBoard.markMask(board, TicTacToeState.X_MARK) |
+          TicTacToeBoard.markMask(board, TicTacToeState.O_MARK));
+      int cell = TicTacToeBoard.selectCell(emptyMask, rand.nextInt(Integer.bitCount(emptyMask)));
+      String[] moved = send(client, HttpRequest.newBuilder(URI.create(url + "/game/" + sessionId + "?cell=" + cell))
+          .POST(HttpRequest.BodyPublishers.noBody()).build()).split(" ");
+      numRequests.increment();
+      board = moved[0];
+      status = moved[1];
+    }
+    send(client, HttpRequest.newBuilder(URI.create(url + "/game/" + sessionId)).DELETE().build());
+    numRequests.increment();
+  }
+
+  private static String send(HttpClient client, HttpRequest request) throws Exception {
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+    }
+    return response.body();
+  }
+
+  /**
+   * @return The reachable boards on which the game is in progress, as strings such as "XOIIXOXIO"
+   */
+  private static String[] inProgressBoards() {
+    return IntStream.range(0, TicTacToeBoard.NUM_POSITIONS)
+        .mapToObj(TicTacToeStateRegistry::interned)
+        .filter(state -> state != null && state.statusCode() == TicTacToeBoard.STATUS_IN_PROGRESS)
+        .map(TicTacToeState::getGameBoard)
+        .toArray(String[]::new);
+  }
+
+  /**
+   * Concurrent histogram of latencies, with buckets a microsecond wide below 64 microseconds,
+   * and 64 buckets per power of two above, so that percentiles are within about 1.6%
+   */
+  private static class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+      long micros = Math.max(0, nanos / 1000);
+      counts.incrementAndGet(bucket(micros));
+      count.increment();
+      max.accumulate(nanos);
+    }
+
+    long count() {
+      return count.sum();
+    }
+
+    long max() {
+      return max.get();
+    }
+
+    /**
+     * @return Latency in nanoseconds (the upper bound of its bucket) below which the given fraction fall
+     */
+    long percentile(double fraction) {
+      long target = (long)Math.ceil(fraction * count.sum());
+      long seen = 0;
+      for (int bucket = 0; bucket < counts.length(); bucket++) {
+        seen += counts.get(bucket);
+        if (seen >= Math.max(1, target)) {
+          return Math.min(max.get(), upperBoundMicros(bucket) * 1000);
+        }
+      }
+      return max.get();
+    }
+
+    private static int bucket(long micros) {
+      if (micros < SUB_BUCKETS) {
+        return (int)micros;
+      }
+      // Each power of two at or above SUB_BUCKETS is split into SUB_BUCKETS buckets
+      int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+      return (shift + 1) * SUB_BUCKETS + (int)((micros >>> shift) - SUB_BUCKETS);
+    }
+
+    private static long upperBoundMicros(int bucket) {
+      if (bucket < SUB_BUCKETS) {
+        return bucket + 1;
+      }
+      int shift = bucket / SUB_BUCKETS - 1;
+      return (long)(bucket % SUB_BUCKETS + SUB_BUCKETS + 1) << shift;
+    }
+  }
+}
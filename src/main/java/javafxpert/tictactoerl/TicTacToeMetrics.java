@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low-overhead counters of game outcomes, illegal moves and steps, which environments
+ * update instead of printing to the console.  The counters may be shared by environments
+ * on several threads.  They can be read programmatically, through JMX (see register()),
+ * or by a periodic console reporter.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeMetrics implements TicTacToeMetricsMXBean {
+  private static final int DEFAULT_WINDOW_SIZE = 1000;
+
+  /**
+   * Number of samples of the counters kept for calculating the rolling win rate
+   */
+  private static final int NUM_SAMPLES = 32;
+
+  /**
+   * Daemon thread on which console reporters run
+   */
+  private static final ScheduledExecutorService reporterExecutor =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "metrics-reporter");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  private final LongAdder wins = new LongAdder();
+  private final LongAdder losses = new LongAdder();
+  private final LongAdder draws = new LongAdder();
+  private final LongAdder illegalMoves = new LongAdder();
+  private final LongAdder steps = new LongAdder();
+
+  /**
+   * Number of recent games over which the rolling win rate is calculated
+   */
+  private final int windowSize;
+
+  /**
+   * Numbers of games and of wins sampled by reads of the rolling win rate, in a ring indexed
+   * by sample number, so that recording an outcome only has to increment a LongAdder.  Guarded by this.
+   */
+  private final long[] sampledGames = new long[NUM_SAMPLES];
+  private final long[] sampledWins = new long[NUM_SAMPLES];
+  private int numSamples = 1;
+
+  public TicTacToeMetrics() {
+    this(DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * @param windowSize Number of recent games over which the rolling win rate is calculated
+   */
+  public TicTacToeMetrics(int windowSize) {
+    this.windowSize = windowSize;
+  }
+
+  public void recordWin() {
+    wins.increment();
+  }
+
+  public void recordLoss() {
+    losses.increment();
+  }
+
+  public void recordDraw() {
+    draws.increment();
+  }
+
+  public void recordIllegalMove() {
+    illegalMoves.increment();
+  }
+
+  public void recordStep() {
+    steps.increment();
+  }
+
+  @Override
+  public long getWins() {
+    return wins.sum();
+  }
+
+  @Override
+  public long getLosses() {
+    return losses.sum();
+  }
+
+  @Override
+  public long getDraws() {
+    return draws.sum();
+  }
+
+  @Override
+  public long getGames() {
+    return getWins() + getLosses() + getDraws();
+  }
+
+  @Override
+  public long getIllegalMoves() {
+    return illegalMoves.sum();
+  }
+
+  @Override
+  public long getSteps() {
+    return steps.sum();
+  }
+
+  @Override
+  public double getWinRate() {
+    long games = getGames();
+    return games == 0 ? 0. : (double)getWins() / games;
+  }
+
+  /**
+   * Calculates the win rate since the most recent sample of the counters that is at least
+   * the window size games old, and takes a new sample every few reads.  The rate is therefore
+   * over the last window size games when it is read often, such as by a console reporter,
+   * and over all games since an earlier read otherwise.
+   */
+  @Override
+  public synchronized double getRollingWinRate() {
+    long numWins = getWins();
+    long numGames = getGames();
+
+    int oldestSample = Math.max(0, numSamples - NUM_SAMPLES);
+    int sample = numSamples - 1;
+    while (sample > oldestSample && numGames - sampledGames[sample % NUM_SAMPLES] < windowSize) {
+      sample--;
+    }
+    long windowGames = numGames - sampledGames[sample % NUM_SAMPLES];
+    long windowWins = numWins - sampledWins[sample % NUM_SAMPLES];
+
+    if (numGames - sampledGames[(numSamples - 1) % NUM_SAMPLES] >= Math.max(1, windowSize / (NUM_SAMPLES / 2))) {
+      sampledGames[numSamples % NUM_SAMPLES] = numGames;
+      sampledWins[numSamples % NUM_SAMPLES] = numWins;
+      numSamples++;
+    }
+    return windowGames <= 0 ? 0. : (double)windowWins / windowGames;
+  }
+
+  @Override
+  public void reset() {
+    wins.reset();
+    losses.reset();
+    draws.reset();
+    illegalMoves.reset();
+    steps.reset();
+    synchronized (this) {
+      sampledGames[0] = 0;
+      sampledWins[0] = 0;
+      numSamples = 1;
+    }
+  }
+
+  /**
+   * Register these metrics with the platform MBean server
+   *
+   * @param name Object name, for example "javafxpert.tictactoerl:type=TicTacToeMetrics,name=training"
+   */
+  public void register(String name) throws JMException {
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(name));
+  }
+
+  /**
+   * Periodically print a summary of these metrics to the console
+   *
+   * @return Future with which the reporter may be cancelled
+   */
+  public ScheduledFuture<?> startConsoleReporter(long period, TimeUnit unit) {
+    return reporterExecutor.scheduleAtFixedRate(() -> System.out.println(this), period, period, unit);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("games: %d (won %d, lost %d, drew %d), win rate: %.3f, rolling win rate: %.3f, " +
+            "steps: %d, illegal moves: %d",
+        getGames(), getWins(), getLosses(), getDraws(), getWinRate(), getRollingWinRate(),
+        getSteps(), getIllegalMoves());
+  }
+}
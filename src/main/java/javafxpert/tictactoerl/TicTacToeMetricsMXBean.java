@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+/**
+ * JMX view of the game outcome counters kept by TicTacToeMetrics.  Outcomes are
+ * from the point of view of the learning (or trained) agent.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public interface TicTacToeMetricsMXBean {
+  long getWins();
+
+  long getLosses();
+
+  long getDraws();
+
+  long getGames();
+
+  long getIllegalMoves();
+
+  long getSteps();
+
+  /**
+   * @return Fraction of all games that the agent won
+   */
+  double getWinRate();
+
+  /**
+   * @return Fraction of the most recent games that the agent won
+   */
+  double getRollingWinRate();
+
+  void reset();
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import java.util.Arrays;
+
+/**
+ * Transposition table, computed once by minimax search, holding the game-theoretic value
+ * of every board in the base-3 encoding of TicTacToeBoard.index() for each mark to move,
+ * along with the mask of cells that achieve that value.  A perfect player chooses among
+ * the optimal cells with a single lookup.
+ *
+ * Values are from the point of view of the mark to move: positive if it can force a win,
+ * negative if the other mark can, and zero if best play leads to a cat's game.  The
+ * magnitude of a win or loss is one more than the number of empty cells left when the
+ * game ends, so that faster wins and slower losses are preferred.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public final class TicTacToeMinimaxTable {
+  private static final byte UNSOLVED = Byte.MIN_VALUE;
+
+  private static final byte[] X_VALUE = new byte[TicTacToeBoard.NUM_POSITIONS];
+  private static final byte[] O_VALUE = new byte[TicTacToeBoard.NUM_POSITIONS];
+  private static final short[] X_OPTIMAL_CELLS = new short[TicTacToeBoard.NUM_POSITIONS];
+  private static final short[] O_OPTIMAL_CELLS = new short[TicTacToeBoard.NUM_POSITIONS];
+
+  static {
+    Arrays.fill(X_VALUE, UNSOLVED);
+    Arrays.fill(O_VALUE, UNSOLVED);
+    for (int xMask = 0; xMask <= TicTacToeBoard.FULL_MASK; xMask++) {
+      for (int oMask = 0; oMask <= TicTacToeBoard.FULL_MASK; oMask++) {
+        if ((xMask & oMask) == 0) {
+          solve(xMask, oMask, true);
+          solve(xMask, oMask, false);
+        }
+      }
+    }
+  }
+
+  private TicTacToeMinimaxTable() {
+  }
+
+  /**
+   * @return Value of the board at the given index to the given mark, when it is that mark's move
+   */
+  public static int value(int index, char mark) {
+    return mark == TicTacToeState.X_MARK ? X_VALUE[index] : O_VALUE[index];
+  }
+
+  /**
+   * @return Mask of the empty cells in which the given mark achieves the value of the board,
+   * or zero if the game is over
+   */
+  public static int optimalCells(int index, char mark) {
+    return mark == TicTacToeState.X_MARK ? X_OPTIMAL_CELLS[index] : O_OPTIMAL_CELLS[index];
+  }
+
+  /**
+   * Negamax search of the board for the given mark to move, recording the value and
+   * optimal cells of each board visited
+   *
+   * @return Value of the board to the mark to move
+   */
+  private static int solve(int xMask, int oMask, boolean xToMove) {
+    int index = TicTacToeBoard.index(xMask, oMask);
+    byte[] values = xToMove ? X_VALUE : O_VALUE;
+    if (values[index] != UNSOLVED) {
+      return values[index];
+    }
+
+    int bestValue = 0;
+    int bestCells = 0;
+    if (TicTacToePositionTable.status(index) == TicTacToeBoard.STATUS_IN_PROGRESS) {
+      bestValue = Integer.MIN_VALUE;
+      int emptyMask = ~(xMask | oMask) & TicTacToeBoard.FULL_MASK;
+      for (int cells = emptyMask; cells != 0; cells &= cells - 1) {
+        int cellBit = cells & -cells;
+        int childX = xToMove ? xMask | cellBit : xMask;
+        int childO = xToMove ? oMask : oMask | cellBit;
+        int childStatus = TicTacToePositionTable.status(TicTacToeBoard.index(childX, childO));
+
+        int value;
+        if (childStatus == TicTacToeBoard.STATUS_IN_PROGRESS) {
+          value = -solve(childX, childO, !xToMove);
+        }
+        else if (childStatus == TicTacToeBoard.STATUS_CATS_GAME) {
+          value = 0;
+        }
+        else {
+          // Only the mark that just moved can have completed a three-in-a-row
+          value = Integer.bitCount(emptyMask);
+        }
+
+        if (value > bestValue) {
+          bestValue = value;
+          bestCells = cellBit;
+        }
+        else if (value == bestValue) {
+          bestCells |= cellBit;
+        }
+      }
+    }
+
+    values[index] = (byte)bestValue;
+    (xToMove ? X_OPTIMAL_CELLS : O_OPTIMAL_CELLS)[index] = (short)bestCells;
+    return bestValue;
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.JMException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP server through which a trained agent can be played.  Moves are served from a
+ * TicTacToeFrozenPolicy, and full games are played through a TicTacToeSessionService.  Each
+ * request is handled on its own virtual thread when the JVM supports them (Java 21 and later),
+ * and otherwise on a fixed pool of platform threads, whose size bounds the number of requests
+ * handled at once.  Boards are written as in TicTacToeState, for example
+ * "XOIIXOXIO", and responses are plain text:
+ *
+ * <pre>
+ *   GET    /move?board=XOIIXOXIO     the agent's move (cell 0-8) on the board, or -1 if there is none
+ *   POST   /batch                    one board per line in the body; one move per line in the response
+ *   POST   /game                     start a game, in which the agent (X) moves first:
+ *                                    "sessionId board status"
+ *   GET    /game/{sessionId}         "board status" of the game
+ *   POST   /game/{sessionId}?cell=n  play O in cell n, followed by the agent's reply: "board status"
+ *   DELETE /game/{sessionId}         end the game
+ * </pre>
+ *
+ * Malformed requests and illegal moves are answered with status 400, unknown (or evicted)
+ * sessions with 404, moves in finished games with 409, and new games beyond the limit on open
+ * sessions with 503.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeMoveServer {
+  private static final int DEFAULT_PORT = 8080;
+  private static final int DEFAULT_BACKLOG = 16384;
+
+  /**
+   * Number of platform threads handling requests when virtual threads aren't supported
+   */
+  private static final int DEFAULT_MAX_PLATFORM_THREADS = 256;
+
+  static {
+    // Without TCP_NODELAY, each response waits on the client's delayed acknowledgement
+    if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+      System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+  }
+
+  private final TicTacToeFrozenPolicy policy;
+
+  private final TicTacToeSessionService sessionService;
+
+  private final HttpServer server;
+
+  private final ExecutorService executor;
+
+  public TicTacToeMoveServer(TicTacToeFrozenPolicy policy, int port) throws IOException {
+    this(policy, port, DEFAULT_BACKLOG);
+  }
+
+  /**
+   * @param backlog Maximum number of incoming connections queued before they are accepted
+   */
+  public TicTacToeMoveServer(TicTacToeFrozenPolicy policy, int port, int backlog) throws IOException {
+    this.policy = policy;
+    sessionService = new TicTacToeSessionService(policy);
+    executor = newRequestExecutor(DEFAULT_MAX_PLATFORM_THREADS);
+
+    server = HttpServer.create(new InetSocketAddress(port), backlog);
+    server.createContext("/move", this::handleMove);
+    server.createContext("/batch", this::handleBatch);
+    server.createContext("/game", this::handleGame);
+    server.setExecutor(executor);
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  /**
+   * Stop accepting requests, waiting up to the given number of seconds for those in progress
+   */
+  public void stop(int delaySeconds) {
+    server.stop(delaySeconds);
+    executor.shutdown();
+    sessionService.close();
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  public TicTacToeSessionService getSessionService() {
+    return sessionService;
+  }
+
+  /**
+   * @return An executor that runs each task on a new virtual thread, if the JVM supports them
+   * (the build targets Java 17, so they are looked up reflectively), or otherwise a fixed pool
+   * of the given number of platform threads, whose use is logged
+   */
+  static ExecutorService newRequestExecutor(int maxPlatformThreads) {
+    try {
+      return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+    catch (ReflectiveOperationException e) {
+      System.err.println("Virtual threads aren't supported by Java " + System.getProperty("java.version") +
+          "; using a pool of " + maxPlatformThreads + " platform threads");
+      return Executors.newFixedThreadPool(maxPlatformThreads);
+    }
+  }
+
+  private void handleMove(HttpExchange exchange) throws IOException {
+    try {
+      String board = queryParameter(exchange.getRequestURI(), "board");
+      respond(exchange, 200, Integer.toString(bestCell(board)));
+    }
+    catch (RuntimeException e) {
+      respondError(exchange, e);
+    }
+  }
+
+  private void handleBatch(HttpExchange exchange) throws IOException {
+    try {
+      if (!exchange.getRequestMethod().equals("POST")) {
+        respond(exchange, 405, "Use POST");
+        return;
+      }
+      String body = readBody(exchange);
+      StringBuilder moves = new StringBuilder(body.length() / 5 + 2);
+      int lineStart = 0;
+      while (lineStart < body.length()) {
+        int lineEnd = body.indexOf('\n', lineStart);
+        if (lineEnd == -1) {
+          lineEnd = body.length();
+        }
+        String board = body.substring(lineStart, lineEnd).trim();
+        if (!board.isEmpty()) {
+          moves.append(bestCell(board)).append('\n');
+        }
+        lineStart = lineEnd + 1;
+      }
+      respond(exchange, 200, moves.toString());
+    }
+    catch (RuntimeException e) {
+      respondError(exchange, e);
+    }
+  }
+
+  private void handleGame(HttpExchange exchange) throws IOException {
+    try {
+      String method = exchange.getRequestMethod();
+      String path = exchange.getRequestURI().getPath();
+      String sessionId = path.length() > "/game/".length() ? path.substring("/game/".length()) : null;
+
+      if (sessionId == null) {
+        if (!method.equals("POST")) {
+          respond(exchange, 405, "Use POST to start a game");
+          return;
+        }
+        String newSessionId = sessionService.createSession();
+        respond(exchange, 200, newSessionId + " " + describe(sessionService.state(newSessionId)));
+      }
+      else if (method.equals("GET")) {
+        respond(exchange, 200, describe(sessionService.state(sessionId)));
+      }
+      else if (method.equals("POST")) {
+        int cell = Integer.parseInt(queryParameter(exchange.getRequestURI(), "cell"));
+        respond(exchange, 200, describe(sessionService.move(sessionId, cell)));
+      }
+      else if (method.equals("DELETE")) {
+        if (!sessionService.closeSession(sessionId)) {
+          throw new NoSuchElementException("No session " + sessionId);
+        }
+        respond(exchange, 200, "closed");
+      }
+      else {
+        respond(exchange, 405, "Unsupported method " + method);
+      }
+    }
+    catch (RuntimeException e) {
+      respondError(exchange, e);
+    }
+  }
+
+  /**
+   * @return The agent's move on a board such as "XOIIXOXIO", or -1 if there is none
+   */
+  private int bestCell(String board) {
+    if (board.length() != TicTacToeState.NUM_CELLS) {
+      throw new IllegalArgumentException("Board must have " + TicTacToeState.NUM_CELLS + " cells: " + board);
+    }
+    for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+      char mark = board.charAt(cell);
+      if (mark != TicTacToeState.X_MARK && mark != TicTacToeState.O_MARK && mark != TicTacToeState.EMPTY) {
+        throw new IllegalArgumentException("Invalid mark '" + mark + "' in board: " + board);
+      }
+    }
+    return policy.bestCell(TicTacToeBoard.markMask(board, TicTacToeState.X_MARK),
+        TicTacToeBoard.markMask(board, TicTacToeState.O_MARK));
+  }
+
+  private static String describe(TicTacToeState state) {
+    return state.getGameBoard() + " " + state.getGameStatus();
+  }
+
+  private static String queryParameter(URI uri, String name) {
+    String query = uri.getRawQuery();
+    if (query != null) {
+      for (String parameter : query.split("&")) {
+        if (parameter.startsWith(name + "=")) {
+          return parameter.substring(name.length() + 1);
+        }
+      }
+    }
+    throw new IllegalArgumentException("Missing parameter: " + name);
+  }
+
+  private static String readBody(HttpExchange exchange) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      return new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+    }
+  }
+
+  private static void respondError(HttpExchange exchange, RuntimeException e) throws IOException {
+    int status = e instanceof NoSuchElementException ? 404 :
+        e instanceof TicTacToeSessionService.SessionLimitException ? 503 :
+        e instanceof IllegalStateException ? 409 :
+        e instanceof IllegalArgumentException ? 400 : 500;
+    respond(exchange, status, String.valueOf(e.getMessage()));
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  /**
+   * Serve the agent whose Q-values were saved by TicTacToeQPlaying, or if there is no snapshot,
+   * one trained here with a dense Q-learner playing both X and O
+   *
+   * @param args Optional port, and path of a Q-table snapshot
+   */
+  public static void main(String[] args) throws IOException, JMException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+    String snapshotPath = args.length > 1 ? args[1] : "output/qplaying-selfplay" + TicTacToeQTableSnapshot.FILE_EXTENSION;
+
+    TicTacToeDenseQLearning agent;
+    if (Files.exists(Paths.get(snapshotPath))) {
+      agent = TicTacToeQTableSnapshot.map(snapshotPath).createLearner(0.90, 1.0);
+    }
+    else {
+      agent = new TicTacToeDenseQLearning(0.90, 0.0, 1.0);
+      TicTacToeEnv env = new TicTacToeEnv();
+      for (char envPlayerMark : new char[] {TicTacToeState.O_MARK, TicTacToeState.X_MARK}) {
+        env.setEnvPlayerMark(envPlayerMark);
+        for (int i = 0; i < 50000; i++) {
+          agent.runLearningEpisode(env);
+          env.resetEnvironment();
+        }
+      }
+    }
+
+    TicTacToeMoveServer server = new TicTacToeMoveServer(TicTacToeFrozenPolicy.compile(agent), port);
+    server.getSessionService().getMetrics().register("javafxpert.tictactoerl:type=TicTacToeMetrics,name=server");
+    server.start();
+    System.out.println("Serving moves on port " + server.getPort());
+  }
+}
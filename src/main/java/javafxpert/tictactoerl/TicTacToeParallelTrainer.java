@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import javax.management.JMException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trains dense Q-learners on several threads at once.  Each worker thread has its own
+ * TicTacToeEnv and TicTacToeDenseQLearning, and all of the learners share one Q-table.
+ * How concurrent updates to the shared table are made is selected by UpdateMode.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeParallelTrainer {
+  /**
+   * How the workers' updates to the shared Q-table are made
+   */
+  public enum UpdateMode {
+    /**
+     * Plain, unsynchronized reads and writes; occasional updates may be lost
+     */
+    HOGWILD,
+
+    /**
+     * Lock-free compare-and-set of each Q-value (AtomicTicTacToeQTable)
+     */
+    ATOMIC,
+
+    /**
+     * Updates made under one of a number of locks chosen by board (StripedTicTacToeQTable)
+     */
+    STRIPED
+  }
+
+  private final int numThreads;
+
+  private final TicTacToeQTable qTable;
+
+  private double gamma = 0.90;
+  private double learningRate = 1.0;
+  private double epsilon = 0.1;
+  private boolean useSymmetry = false;
+
+  /**
+   * Total number of episodes completed by all workers
+   */
+  private final LongAdder numEpisodes = new LongAdder();
+
+  /**
+   * Game outcomes of all workers' environments
+   */
+  private final TicTacToeMetrics metrics = new TicTacToeMetrics();
+
+  public TicTacToeParallelTrainer(int numThreads, UpdateMode updateMode, double qInit) {
+    this.numThreads = numThreads;
+    switch (updateMode) {
+      case ATOMIC:
+        qTable = new AtomicTicTacToeQTable(qInit);
+        break;
+      case STRIPED:
+        qTable = new StripedTicTacToeQTable(qInit);
+        break;
+      default:
+        qTable = new TicTacToeQTable(qInit);
+    }
+  }
+
+  public TicTacToeQTable getQTable() {
+    return qTable;
+  }
+
+  public void setGamma(double gamma) {
+    this.gamma = gamma;
+  }
+
+  public void setLearningRate(double learningRate) {
+    this.learningRate = learningRate;
+  }
+
+  public void setEpsilon(double epsilon) {
+    this.epsilon = epsilon;
+  }
+
+  public void setUseSymmetry(boolean useSymmetry) {
+    this.useSymmetry = useSymmetry;
+  }
+
+  public long getNumEpisodes() {
+    return numEpisodes.sum();
+  }
+
+  public TicTacToeMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Create a learner, for one worker, that updates the shared Q-table
+   */
+  public TicTacToeDenseQLearning createLearner() {
+    TicTacToeDenseQLearning learner = new TicTacToeDenseQLearning(qTable, gamma, learningRate);
+    learner.setEpsilon(epsilon);
+    learner.setUseSymmetry(useSymmetry);
+    return learner;
+  }
+
+  /**
+   * Run learning episodes on all of the worker threads, and wait for them to finish
+   *
+   * @param episodesPerThread Number of episodes each worker runs
+   * @return Aggregate number of episodes per second over all workers
+   */
+  public double train(int episodesPerThread) throws InterruptedException {
+    CountDownLatch startSignal = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < numThreads; i++) {
+      TicTacToeDenseQLearning learner = createLearner();
+      Thread worker = new Thread(() -> {
+        TicTacToeEnv env = new TicTacToeEnv();
+        env.setMetrics(metrics);
+        try {
+          startSignal.await();
+        }
+        catch (InterruptedException e) {
+          return;
+        }
+        for (int episode = 0; episode < episodesPerThread; episode++) {
+          learner.runLearningEpisode(env);
+          env.resetEnvironment();
+          numEpisodes.increment();
+        }
+      }, "trainer-" + i);
+      workers.add(worker);
+      worker.start();
+    }
+
+    long episodesBefore = numEpisodes.sum();
+    long startTime = System.nanoTime();
+    startSignal.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsedNanos = System.nanoTime() - startTime;
+
+    return (numEpisodes.sum() - episodesBefore) * 1e9 / elapsedNanos;
+  }
+
+  /**
+   * Report the training throughput with increasing numbers of threads, up to the number of processors
+   */
+  public static void main(String[] args) throws InterruptedException, JMException {
+    UpdateMode updateMode = args.length > 0 ? UpdateMode.valueOf(args[0]) : UpdateMode.HOGWILD;
+    int episodesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+    int maxThreads = Runtime.getRuntime().availableProcessors();
+
+    for (int numThreads = 1; numThreads <= maxThreads; numThreads *= 2) {
+      TicTacToeParallelTrainer trainer = new TicTacToeParallelTrainer(numThreads, updateMode, 0.0);
+      trainer.getMetrics().register("javafxpert.tictactoerl:type=TicTacToeMetrics,name=parallel-" + numThreads);
+      double episodesPerSecond = trainer.train(episodesPerThread);
+      System.out.println(updateMode + " with " + numThreads + " threads: " +
+          Math.round(episodesPerSecond) + " episodes/sec, " + trainer.getMetrics());
+    }
+  }
+}
@@ -15,9 +15,7 @@
  */
 package javafxpert.tictactoerl;
 
-import burlap.behavior.policy.EpsilonGreedy;
 import burlap.behavior.policy.Policy;
-import burlap.behavior.policy.support.ActionProb;
 import burlap.behavior.singleagent.learning.tdmethods.QLearning;
 import burlap.mdp.core.action.Action;
 import burlap.mdp.core.state.State;
@@ -29,6 +27,7 @@ import burlap.mdp.singleagent.environment.extensions.EnvironmentServerInterface;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * @author James L. Weaver (Twitter: @JavaFXpert)
@@ -39,16 +38,16 @@ public class TicTacToePlayerEnv implements Environment, EnvironmentServerInterfa
   private static int MOVE_REWARD = -1;
 
   /**
-   * String representation of cells on the game board.
-   * For example: "XOIIXOXIO"
+   * Cells on the game board occupied by X and by O, where bit n corresponds to cell n
    */
-  private StringBuffer gameBoard;
+  private int xMask;
+  private int oMask;
 
   /**
    * Game status, specifically, whether the game is in-progress, or if X won,
-   * or if O won, or if it is cat's game (nobody won).
+   * or if O won, or if it is cat's game (nobody won).  One of the TicTacToeBoard.STATUS_* codes.
    */
-  private String gameStatus;
+  private int gameStatus;
 
   /**
    * Indicates whether the the game is in the terminal state
@@ -67,12 +66,21 @@ public class TicTacToePlayerEnv implements Environment, EnvironmentServerInterfa
 
   protected List<EnvironmentObserver> observers = new LinkedList<EnvironmentObserver>();
 
-  EpsilonGreedy epsilonGreedyPolicy;
+  /**
+   * Policy of the player that responds to the human's moves, for example an EpsilonGreedy
+   * policy of a learning agent, or a TicTacToeFrozenPolicy compiled from one
+   */
+  Policy policy;
 
   MoveActionType moveActionType;
 
-  public TicTacToePlayerEnv(EpsilonGreedy epsilonGreedyPolicy) {
-    this.epsilonGreedyPolicy = epsilonGreedyPolicy;
+  /**
+   * Counters of game outcomes, from the point of view of the player following the policy (X)
+   */
+  private TicTacToeMetrics metrics = new TicTacToeMetrics();
+
+  public TicTacToePlayerEnv(Policy policy) {
+    this.policy = policy;
 
     resetEnvironment();
   }
@@ -110,33 +118,38 @@ public class TicTacToePlayerEnv implements Environment, EnvironmentServerInterfa
   public EnvironmentOutcome executeAction(Action action) {
     MoveAction humanAction = (MoveAction)action;
 
-    TicTacToeState priorState = new TicTacToeState(gameBoard.toString(), gameStatus);
+    TicTacToeState priorState = TicTacToeStateRegistry.state(xMask, oMask, gameStatus);
 
     // actionId is the same as the cell number (0 - 8) of the move
     int cellNum = humanAction.getActionId();
 
+    metrics.recordStep();
+
     if (cellNum < 0 || cellNum >= TicTacToeState.NUM_CELLS ||
-        (gameBoard.charAt(cellNum) != TicTacToeState.EMPTY)) {
+        (emptyMask() & (1 << cellNum)) == 0) {
 
-      // Illegal move attempted so don't change
-      System.out.println("Illegal move attempted to cell " + cellNum);
-    }
-    else {
-      gameBoard.setCharAt(cellNum, TicTacToeState.O_MARK);
+      // Illegal move attempted so don't change the board, and leave the turn with the human
+      metrics.recordIllegalMove();
+      gameStatus = evalGameStatus();
+      reward = 0;
+      terminated = gameStatus != TicTacToeBoard.STATUS_IN_PROGRESS;
+      currentObservationState = priorState.copy();
+      return new EnvironmentOutcome(priorState, action, priorState, reward, terminated);
     }
+    oMask |= 1 << cellNum;
 
     gameStatus = evalGameStatus();
-    if (gameStatus.equals(TicTacToeState.GAME_STATUS_X_WON)) {
+    if (gameStatus == TicTacToeBoard.STATUS_X_WON) {
       reward = WIN_REWARD;
       terminated = true;
     }
-    else if (gameStatus.equals(TicTacToeState.GAME_STATUS_O_WON)) {
+    else if (gameStatus == TicTacToeBoard.STATUS_O_WON) {
 
       // TODO: Consider removing this condition, as it doen't seem possible to encounter
       reward = LOSE_REWARD;
       terminated = true;
     }
-    else if (gameStatus.equals(TicTacToeState.GAME_STATUS_CATS_GAME)) {
+    else if (gameStatus == TicTacToeBoard.STATUS_CATS_GAME) {
       reward = MOVE_REWARD;
       terminated = true;
     }
@@ -144,40 +157,43 @@ public class TicTacToePlayerEnv implements Environment, EnvironmentServerInterfa
       reward = 0;
       terminated = false;
 
-      priorState.set(TicTacToeState.VAR_GAME_BOARD, gameBoard.toString());
-      priorState.set(TicTacToeState.VAR_GAME_STATUS, gameStatus);
+      priorState = TicTacToeStateRegistry.state(xMask, oMask, gameStatus);
 
-      // Play according the policy passed in to this environment
+      // Play according the policy passed in to this environment.  A TicTacToeFrozenPolicy has no
+      // move for a board that isn't reachable, so in that case, as when the policy proposes an
+      // occupied cell, X plays in a random empty cell instead
+      Action playerAction = policy.action(priorState);
+      int proposedCellIndex = playerAction != null ? ((MoveAction)playerAction).getActionId() : -1;
 
-      // Get the probability distribution of all actions from this state
-      List<ActionProb> actionProbs = epsilonGreedyPolicy.policyDistribution(priorState);
-      System.out.println("actionProbs: " + actionProbs);
-
-      MoveAction playerAction = (MoveAction)epsilonGreedyPolicy.action(priorState);
-      System.out.println("playerAction.getActionId(): " + (playerAction.getActionId()));
-      int proposedCellIndex = playerAction.getActionId();
-
-      if (gameBoard.charAt(proposedCellIndex) == TicTacToeState.EMPTY) {
-        gameBoard.setCharAt(proposedCellIndex, TicTacToeState.X_MARK);
-      }
-      else {
-        System.out.println("Invalid move by player to cell: " + proposedCellIndex);
+      if (proposedCellIndex == -1 || (emptyMask() & (1 << proposedCellIndex)) == 0) {
+        metrics.recordIllegalMove();
+        proposedCellIndex = OpponentStrategies.RANDOM.chooseCell(TicTacToeBoard.index(xMask, oMask),
+            TicTacToeState.X_MARK, ThreadLocalRandom.current());
       }
+      xMask |= 1 << proposedCellIndex;
 
 
       gameStatus = evalGameStatus();  // Evaluate game status after O has responded, and update terminated state
-      if (gameStatus.equals(TicTacToeState.GAME_STATUS_O_WON)) {
+      if (gameStatus == TicTacToeBoard.STATUS_X_WON) {
+        reward = WIN_REWARD;
+        terminated = true;
+      }
+      else if (gameStatus == TicTacToeBoard.STATUS_O_WON) {
         reward = 0;
         terminated = true;
       }
-      else if (gameStatus.equals(TicTacToeState.GAME_STATUS_CATS_GAME)) {
+      else if (gameStatus == TicTacToeBoard.STATUS_CATS_GAME) {
         // TODO: Consider removing this condition, as it doen't seem possible to encounter
         reward = 0;
         terminated = true;
       }
     }
 
-    TicTacToeState newState = new TicTacToeState(gameBoard.toString(), gameStatus);
+    if (terminated) {
+      recordOutcome();
+    }
+
+    TicTacToeState newState = TicTacToeStateRegistry.state(xMask, oMask, gameStatus);
 
     currentObservationState = newState.copy();
 
@@ -199,68 +215,62 @@ public class TicTacToePlayerEnv implements Environment, EnvironmentServerInterfa
 
   @Override
   public void resetEnvironment() {
-    gameBoard = new StringBuffer(TicTacToeState.ONE_X_BOARD);
-    gameStatus = TicTacToeState.GAME_STATUS_IN_PROGRESS;
+    xMask = TicTacToeBoard.markMask(TicTacToeState.ONE_X_BOARD, TicTacToeState.X_MARK);
+    oMask = 0;
+    gameStatus = TicTacToeBoard.STATUS_IN_PROGRESS;
 
-    currentObservationState = new TicTacToeState(gameBoard.toString(), gameStatus);
+    currentObservationState = TicTacToeStateRegistry.state(xMask, oMask, gameStatus);
 
     terminated = false;
   }
 
   public EnvironmentOutcome executeActionWithGameBoard(MoveAction moveAction, String gameBoardStr) {
-    this.gameBoard = new StringBuffer(gameBoardStr);
-    this.gameStatus = TicTacToeState.GAME_STATUS_IN_PROGRESS;
+    this.xMask = TicTacToeBoard.markMask(gameBoardStr, TicTacToeState.X_MARK);
+    this.oMask = TicTacToeBoard.markMask(gameBoardStr, TicTacToeState.O_MARK);
+    this.gameStatus = TicTacToeBoard.STATUS_IN_PROGRESS;
     return executeAction(moveAction);
   }
 
+  public TicTacToeMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Replace the counters of game outcomes, for example with ones shared by several environments
+   */
+  public void setMetrics(TicTacToeMetrics metrics) {
+    this.metrics = metrics;
+  }
+
   /**
    * Evaluate the status of the game (in-progress, or who won)
    *
    * @return Indicator of in-progress, or who won
    */
-  private String evalGameStatus() {
-    // Start with the assumption that all cells are occupied but nobody won
-    String gameStatus = TicTacToeState.GAME_STATUS_CATS_GAME;
-
-    // Check if this game is still in progress
-    for (int idx = 0; idx < TicTacToeState.NUM_CELLS; idx++) {
-      if (gameBoard.charAt(idx) ==  TicTacToeState.EMPTY) {
-        gameStatus = TicTacToeState.GAME_STATUS_IN_PROGRESS;
-        break;
-      }
-    }
+  private int evalGameStatus() {
+    return TicTacToePositionTable.status(TicTacToeBoard.index(xMask, oMask));
+  }
 
-    // Check if X won
-    if ((gameBoard.charAt(0) == TicTacToeState.X_MARK && gameBoard.charAt(1) == TicTacToeState.X_MARK && gameBoard.charAt(2) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(3) == TicTacToeState.X_MARK && gameBoard.charAt(4) == TicTacToeState.X_MARK && gameBoard.charAt(5) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(6) == TicTacToeState.X_MARK && gameBoard.charAt(7) == TicTacToeState.X_MARK && gameBoard.charAt(8) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(0) == TicTacToeState.X_MARK && gameBoard.charAt(3) == TicTacToeState.X_MARK && gameBoard.charAt(6) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(1) == TicTacToeState.X_MARK && gameBoard.charAt(4) == TicTacToeState.X_MARK && gameBoard.charAt(7) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(2) == TicTacToeState.X_MARK && gameBoard.charAt(5) == TicTacToeState.X_MARK && gameBoard.charAt(8) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(0) == TicTacToeState.X_MARK && gameBoard.charAt(4) == TicTacToeState.X_MARK && gameBoard.charAt(8) == TicTacToeState.X_MARK) ||
-        (gameBoard.charAt(2) == TicTacToeState.X_MARK && gameBoard.charAt(4) == TicTacToeState.X_MARK && gameBoard.charAt(6) == TicTacToeState.X_MARK)) {
-      gameStatus = TicTacToeState.GAME_STATUS_X_WON;
-      //System.out.println("X won");
-      System.out.print("X");
+  /**
+   * Count the outcome of the game that has just finished
+   */
+  private void recordOutcome() {
+    if (gameStatus == TicTacToeBoard.STATUS_X_WON) {
+      metrics.recordWin();
     }
-    else if ((gameBoard.charAt(0) == TicTacToeState.O_MARK && gameBoard.charAt(1) == TicTacToeState.O_MARK && gameBoard.charAt(2) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(3) == TicTacToeState.O_MARK && gameBoard.charAt(4) == TicTacToeState.O_MARK && gameBoard.charAt(5) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(6) == TicTacToeState.O_MARK && gameBoard.charAt(7) == TicTacToeState.O_MARK && gameBoard.charAt(8) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(0) == TicTacToeState.O_MARK && gameBoard.charAt(3) == TicTacToeState.O_MARK && gameBoard.charAt(6) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(1) == TicTacToeState.O_MARK && gameBoard.charAt(4) == TicTacToeState.O_MARK && gameBoard.charAt(7) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(2) == TicTacToeState.O_MARK && gameBoard.charAt(5) == TicTacToeState.O_MARK && gameBoard.charAt(8) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(0) == TicTacToeState.O_MARK && gameBoard.charAt(4) == TicTacToeState.O_MARK && gameBoard.charAt(8) == TicTacToeState.O_MARK) ||
-        (gameBoard.charAt(2) == TicTacToeState.O_MARK && gameBoard.charAt(4) == TicTacToeState.O_MARK && gameBoard.charAt(6) == TicTacToeState.O_MARK)) {
-      gameStatus = TicTacToeState.GAME_STATUS_O_WON;
-      //System.out.println("O won");
-      System.out.print("o");
+    else if (gameStatus == TicTacToeBoard.STATUS_O_WON) {
+      metrics.recordLoss();
     }
-
-    if (gameStatus.equals(TicTacToeState.GAME_STATUS_CATS_GAME)) {
-      //System.out.println("Cat's game");
-      System.out.print(".");
+    else {
+      metrics.recordDraw();
     }
-    return gameStatus;
+  }
+
+  /**
+   * @return Mask of the cells on the game board that are not occupied
+   */
+  private int emptyMask() {
+    return ~(xMask | oMask) & TicTacToeBoard.FULL_MASK;
   }
 
 
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+/**
+ * Table, computed once, that describes every one of the 3^9 boards in the base-3
+ * encoding of TicTacToeBoard.index().  For each board it holds the game status, and
+ * the cell that would complete a three-in-a-row for each mark, so that opponent
+ * strategies can choose a winning or blocking move with a single lookup.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public final class TicTacToePositionTable {
+  private static final byte[] STATUS = new byte[TicTacToeBoard.NUM_POSITIONS];
+  private static final byte[] X_WINNING_CELL = new byte[TicTacToeBoard.NUM_POSITIONS];
+  private static final byte[] O_WINNING_CELL = new byte[TicTacToeBoard.NUM_POSITIONS];
+  private static final short[] X_MASK = new short[TicTacToeBoard.NUM_POSITIONS];
+  private static final short[] O_MASK = new short[TicTacToeBoard.NUM_POSITIONS];
+
+  static {
+    for (int xMask = 0; xMask <= TicTacToeBoard.FULL_MASK; xMask++) {
+      for (int oMask = 0; oMask <= TicTacToeBoard.FULL_MASK; oMask++) {
+        if ((xMask & oMask) != 0) {
+          continue;
+        }
+        int index = TicTacToeBoard.index(xMask, oMask);
+        int emptyMask = ~(xMask | oMask) & TicTacToeBoard.FULL_MASK;
+        STATUS[index] = (byte)TicTacToeBoard.evalStatus(xMask, oMask);
+        X_WINNING_CELL[index] = (byte)TicTacToeBoard.lineCompletingCell(xMask, emptyMask);
+        O_WINNING_CELL[index] = (byte)TicTacToeBoard.lineCompletingCell(oMask, emptyMask);
+        X_MASK[index] = (short)xMask;
+        O_MASK[index] = (short)oMask;
+      }
+    }
+  }
+
+  private TicTacToePositionTable() {
+  }
+
+  /**
+   * @return One of the TicTacToeBoard.STATUS_* codes for the board at the given index
+   */
+  public static int status(int index) {
+    return STATUS[index];
+  }
+
+  /**
+   * @return Zero-based index of the cell that would complete a three-in-a-row
+   * for the given mark, or -1 if no cells apply
+   */
+  public static int winningCell(int index, char mark) {
+    return mark == TicTacToeState.X_MARK ? X_WINNING_CELL[index] : O_WINNING_CELL[index];
+  }
+
+  /**
+   * @return Zero-based index of the cell in which the given mark would block a
+   * three-in-a-row by the other mark, or -1 if no cells apply
+   */
+  public static int blockingCell(int index, char mark) {
+    return mark == TicTacToeState.X_MARK ? O_WINNING_CELL[index] : X_WINNING_CELL[index];
+  }
+
+  public static int xMask(int index) {
+    return X_MASK[index];
+  }
+
+  public static int oMask(int index) {
+    return O_MASK[index];
+  }
+
+  public static int emptyMask(int index) {
+    return ~(X_MASK[index] | O_MASK[index]) & TicTacToeBoard.FULL_MASK;
+  }
+}
@@ -19,32 +19,75 @@ import burlap.behavior.singleagent.Episode;
 import burlap.behavior.singleagent.auxiliary.EpisodeSequenceVisualizer;
 import burlap.behavior.singleagent.learning.LearningAgent;
 import burlap.behavior.singleagent.learning.tdmethods.QLearning;
+import burlap.behavior.valuefunction.QProvider;
 import burlap.mdp.singleagent.SADomain;
 import burlap.statehashing.HashableStateFactory;
-import burlap.statehashing.simple.SimpleHashableStateFactory;
 import burlap.visualizer.Visualizer;
 
+import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author James L. Weaver (Twitter: @JavaFXpert)
  */
 public class TicTacToeQLearning {
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException {
     TicTacToeWorld ticTacToeWorld = new TicTacToeWorld();
     SADomain domain = ticTacToeWorld.generateDomain();
-    HashableStateFactory hashingFactory = new SimpleHashableStateFactory();
+    HashableStateFactory hashingFactory = new TicTacToeHashableStateFactory();
+    String outputPath = "output/";
+    String snapshotPath = outputPath + "ql" + TicTacToeQTableSnapshot.FILE_EXTENSION;
     LearningAgent agent = new QLearning(domain, 0.90, hashingFactory, 0.0, 1.0);
+
+    // Uncomment to employ a Q-learner that keeps its Q-values in a flat array indexed by board and cell
+    //LearningAgent agent = new TicTacToeDenseQLearning(0.90, 0.0, 1.0);
+
+    // Uncomment (with the line above) to share the dense Q-learner's Q-values among the
+    // 8 rotations and reflections of each board
+    //((TicTacToeDenseQLearning)agent).setUseSymmetry(true);
+
+    // Uncomment (with the dense Q-learner) to replay a batch of 32 past transitions, sampled
+    // by priority from the last 10000, and weighted to correct for sampling by priority, after every step
+    //((TicTacToeDenseQLearning)agent).setReplayMemory(new TicTacToeReplayMemory(10000, 0.6), 32);
+
+    // Uncomment to employ a dense Q-learner with eligibility traces, which passes the reward at
+    // the end of each game back to all of the agent's moves (setOnPolicy(true) for SARSA(lambda))
+    //LearningAgent agent = new TicTacToeTraceQLearning(0.90, 0.0, 1.0, 0.5);
+
+    // Uncomment to employ a learner of the values of afterstates (the board just after the agent
+    // moves), as in Sutton and Barto's example, which shares a value among the moves leading to a board
+    //LearningAgent agent = new TicTacToeAfterstateLearning(0.90, 0.0, 1.0);
+
+    // Uncomment to resume training, with a dense Q-learner, from the Q-values saved by a previous run
+    //LearningAgent agent = TicTacToeQTableSnapshot.load(snapshotPath).createLearner(0.90, 1.0);
+
+    // Uncomment (with the QLearning agent) to resume training from the Q-values saved by a previous run
+    //((QLearning)agent).setQInitFunction(TicTacToeQTableSnapshot.load(snapshotPath).createLearner(0.90, 1.0));
+
     TicTacToeEnv env = new TicTacToeEnv();
 
+    // Uncomment to train against an "O" player that never loses, or substitute another
+    // strategy (or chain of strategies) from OpponentStrategies
+    //env.setOpponentStrategy(OpponentStrategies.PERFECT);
+
     //run learning for 5000 episodes
-    String outputPath = "output/";
+    AsyncEpisodeWriter episodeWriter = new AsyncEpisodeWriter(TicTacToeEpisodeStore.create(outputPath + "ql"));
+    ScheduledFuture<?> progressReporter = env.getMetrics().startConsoleReporter(1, TimeUnit.SECONDS);
     for(int i = 0; i < 5000; i++){
       Episode e = agent.runLearningEpisode(env);
 
-      e.write(outputPath + "ql_" + i);
+      episodeWriter.record(e);
 
       //reset environment for next learning episode
       env.resetEnvironment();
     }
+    episodeWriter.close();
+    progressReporter.cancel(false);
+    System.out.println(env.getMetrics());
+
+    // Save the learned Q-values, from which training can be resumed
+    TicTacToeQTableSnapshot.save(TicTacToeQTableSnapshot.capture((QProvider)agent), false, snapshotPath);
 
 //TODO: Attempt to get this visualization working
 //    VisualActionObserver observer = new VisualActionObserver(ticTacToeWorld.getVisualizer());
@@ -52,6 +95,7 @@ public class TicTacToeQLearning {
 //		env.addObservers(observer);
 
     Visualizer v = ticTacToeWorld.getVisualizer();
-    new EpisodeSequenceVisualizer(v, domain, outputPath);
+    TicTacToeEpisodeStore.Reader episodeReader = TicTacToeEpisodeStore.open(outputPath + "ql");
+    new EpisodeSequenceVisualizer(v, domain, episodeReader.episodes());
   }
 }
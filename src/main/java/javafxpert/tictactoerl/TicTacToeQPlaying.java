@@ -15,57 +15,121 @@
  */
 package javafxpert.tictactoerl;
 
-import burlap.behavior.policy.EpsilonGreedy;
 import burlap.behavior.singleagent.Episode;
 import burlap.behavior.singleagent.auxiliary.EpisodeSequenceVisualizer;
-import burlap.behavior.singleagent.learning.LearningAgent;
 import burlap.behavior.singleagent.learning.tdmethods.QLearning;
+import burlap.behavior.valuefunction.QProvider;
 import burlap.mdp.core.action.Action;
-import burlap.mdp.core.action.SimpleAction;
 import burlap.mdp.singleagent.SADomain;
 import burlap.mdp.singleagent.environment.EnvironmentOutcome;
 import burlap.statehashing.HashableStateFactory;
-import burlap.statehashing.simple.SimpleHashableStateFactory;
 import burlap.visualizer.Visualizer;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
+ * Trains an agent to play both X and O, then plays a couple of moves against it.  By default
+ * the agent is trained by self-play; run with the argument "qlearning" to instead train a
+ * QLearning agent against the environment's scripted player, and view its episodes.
+ *
  * @author James L. Weaver (Twitter: @JavaFXpert)
  */
 public class TicTacToeQPlaying {
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException, InterruptedException {
+    boolean selfPlay = !(args.length > 0 && args[0].equals("qlearning"));
+    String mode = selfPlay ? "selfplay" : "qlearning";
+    String outputPath = "output/";
+
+    // Each mode keeps its own snapshot, so that choosing a mode never plays with Q-values trained the other way
+    String snapshotPath = outputPath + "qplaying-" + mode + TicTacToeQTableSnapshot.FILE_EXTENSION;
+
+    QProvider trainedAgent;
+    if (Files.exists(Paths.get(snapshotPath))) {
+      // Play straight away with the Q-values saved by a previous run (delete the snapshot to train again)
+      System.out.println("Playing with the " + mode + " Q-values saved in " + snapshotPath);
+      trainedAgent = TicTacToeQTableSnapshot.map(snapshotPath).createLearner(0.90, 1.0);
+    }
+    else {
+      System.out.println("Training by " + mode + ", then saving the Q-values in " + snapshotPath);
+      trainedAgent = selfPlay ? trainBySelfPlay() : train(outputPath);
+      TicTacToeQTableSnapshot.save(TicTacToeQTableSnapshot.capture(trainedAgent), false, snapshotPath);
+    }
+
+    // Use the trained agent to play tic-tac-toe in a new environment
+    // using its greedy policy, compiled into a table of the best move from each board
+    TicTacToePlayerEnv ticTacToePlayerEnv = new TicTacToePlayerEnv(TicTacToeFrozenPolicy.compile(trainedAgent));
+
+    System.out.println();
+    Action humanAction = MoveAction.forCell(4);
+    EnvironmentOutcome environmentOutcome = ticTacToePlayerEnv.executeAction(humanAction);
+    System.out.println("environmentOutcome.op: " + environmentOutcome.op);
+
+    System.out.println();
+    MoveAction humanAction2 = MoveAction.forCell(5);
+    EnvironmentOutcome environmentOutcome2 = ticTacToePlayerEnv.executeActionWithGameBoard(humanAction2, "OIIXXIXIO");
+    System.out.println("environmentOutcome2.op: " + environmentOutcome2.op);
+
+  }
+
+  /**
+   * Train an X learner and an O learner against each other, in a self-play game on each
+   * processor, and return an agent that plays both marks with the Q-values they learned
+   */
+  private static QProvider trainBySelfPlay() throws InterruptedException {
+    int numGames = Runtime.getRuntime().availableProcessors();
+    TicTacToeSelfPlayTrainer trainer = new TicTacToeSelfPlayTrainer(numGames, 0.0);
+
+    ScheduledFuture<?> progressReporter = trainer.getMetrics().startConsoleReporter(1, TimeUnit.SECONDS);
+    trainer.train(40000 / numGames);
+    progressReporter.cancel(false);
+    System.out.println("Self-play, from X's point of view: " + trainer.getMetrics());
+
+    return trainer.createLearner();
+  }
+
+  /**
+   * Train a Q-learning agent against the environment playing O, then playing X
+   */
+  private static QLearning train(String outputPath) throws IOException {
     TicTacToeWorld ticTacToeWorld = new TicTacToeWorld();
     SADomain domain = ticTacToeWorld.generateDomain();
-    HashableStateFactory hashingFactory = new SimpleHashableStateFactory();
+    HashableStateFactory hashingFactory = new TicTacToeHashableStateFactory();
     QLearning qLearningAgent = new QLearning(domain, 0.90, hashingFactory, 0.0, 1.0);
 
-    EpsilonGreedy greedyPolicy = new EpsilonGreedy(qLearningAgent, 0.5);
-
     TicTacToeEnv env = new TicTacToeEnv();
 
-    String outputPath = "output/";
+    AsyncEpisodeWriter episodeWriter = new AsyncEpisodeWriter(new RollingEpisodeLog(outputPath, "ql"));
+    ScheduledFuture<?> progressReporter = env.getMetrics().startConsoleReporter(1, TimeUnit.SECONDS);
 
     env.setEnvPlayerMark(TicTacToeState.O_MARK);
     for(int i = 0; i < 4000; i++){
       Episode e = qLearningAgent.runLearningEpisode(env);
 
-      e.write(outputPath + "ql_" + i);
+      episodeWriter.record(e);
 
       //reset environment for next learning episode
       env.resetEnvironment();
     }
 
-    System.out.println();
-    System.out.println();
+    System.out.println("Playing X: " + env.getMetrics());
+    env.getMetrics().reset();
 
     env.setEnvPlayerMark(TicTacToeState.X_MARK);
     for(int i = 4000; i < 8000; i++){
       Episode e = qLearningAgent.runLearningEpisode(env);
 
-      e.write(outputPath + "ql_" + i);
+      episodeWriter.record(e);
 
       //reset environment for next learning episode
       env.resetEnvironment();
     }
+    episodeWriter.close();
+    progressReporter.cancel(false);
+    System.out.println("Playing O: " + env.getMetrics());
 
 //TODO: Attempt to get this visualization working
 //    VisualActionObserver observer = new VisualActionObserver(ticTacToeWorld.getVisualizer());
@@ -73,22 +137,8 @@ public class TicTacToeQPlaying {
 //		env.addObservers(observer);
 
     Visualizer v = ticTacToeWorld.getVisualizer();
-    new EpisodeSequenceVisualizer(v, domain, outputPath);
-
-    // Use the trained agent to play tic-tac-toe in a new environment
-    EpsilonGreedy nonGreedyPolicyPlayer = new EpsilonGreedy(qLearningAgent, 0.0);
-    TicTacToePlayerEnv ticTacToePlayerEnv = new TicTacToePlayerEnv(nonGreedyPolicyPlayer);
-    //TicTacToePlayerEnv ticTacToePlayerEnv = new TicTacToePlayerEnv(greedyPolicy);
-
-    System.out.println();
-    Action humanAction = new MoveAction(4);
-    EnvironmentOutcome environmentOutcome = ticTacToePlayerEnv.executeAction(humanAction);
-    System.out.println("environmentOutcome.op: " + environmentOutcome.op);
-
-    System.out.println();
-    MoveAction humanAction2 = new MoveAction(5);
-    EnvironmentOutcome environmentOutcome2 = ticTacToePlayerEnv.executeActionWithGameBoard(humanAction2, "OIIXXIXIO");
-    System.out.println("environmentOutcome2.op: " + environmentOutcome2.op);
+    new EpisodeSequenceVisualizer(v, domain, RollingEpisodeLog.readEpisodes(outputPath, "ql"));
 
+    return qLearningAgent;
   }
 }
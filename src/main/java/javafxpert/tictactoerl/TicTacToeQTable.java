@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import java.util.Arrays;
+
+/**
+ * Dense table of Q-values held in a single flat array, indexed by
+ * (base-3 board index, cell).  Every one of the 3^9 boards has a slot for each
+ * of the nine cells, so no per-state objects are created while learning.
+ *
+ * Updates are plain reads and writes of the array, so when the table is shared by
+ * several learning threads it behaves in "Hogwild" style: updates may occasionally be
+ * lost, but none are blocked.  AtomicTicTacToeQTable and StripedTicTacToeQTable make
+ * each update atomic instead.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeQTable {
+  /**
+   * Number of Q-values in the table
+   */
+  public static final int SIZE = TicTacToeBoard.NUM_POSITIONS * TicTacToeState.NUM_CELLS;
+
+  /**
+   * Q-values, where the value for cell c of the board with index b is at b * NUM_CELLS + c
+   */
+  protected final double[] qValues;
+
+  public TicTacToeQTable(double qInit) {
+    qValues = new double[SIZE];
+    Arrays.fill(qValues, qInit);
+  }
+
+  /**
+   * Constructor for subclasses that keep their Q-values in other storage, and so
+   * override every method that accesses them
+   */
+  protected TicTacToeQTable() {
+    qValues = null;
+  }
+
+  protected static int slot(int boardIndex, int cell) {
+    return boardIndex * TicTacToeState.NUM_CELLS + cell;
+  }
+
+  public double qValue(int boardIndex, int cell) {
+    return qValues[slot(boardIndex, cell)];
+  }
+
+  public void setQValue(int boardIndex, int cell, double q) {
+    qValues[slot(boardIndex, cell)] = q;
+  }
+
+  /**
+   * Move a Q-value toward a target, i.e. Q += learningRate * (target - Q)
+   */
+  public void update(int boardIndex, int cell, double target, double learningRate) {
+    int slot = slot(boardIndex, cell);
+    qValues[slot] += learningRate * (target - qValues[slot]);
+  }
+
+  /**
+   * @param boardIndex Base-3 index of the board
+   * @param cellMask Mask of the cells (usually the empty cells) to consider
+   * @return The maximum Q-value over the given cells, or 0 if there are none
+   */
+  public double maxQValue(int boardIndex, int cellMask) {
+    if (cellMask == 0) {
+      return 0.;
+    }
+    double maxQ = Double.NEGATIVE_INFINITY;
+    for (int cells = cellMask; cells != 0; cells &= cells - 1) {
+      maxQ = Math.max(maxQ, qValue(boardIndex, Integer.numberOfTrailingZeros(cells)));
+    }
+    return maxQ;
+  }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.valuefunction.QFunction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot of learned Q-values, saved in a compact binary file from which a learner can be
+ * rebuilt, either to resume training or to serve moves.  Only the 5478 boards reachable in
+ * legal play (see TicTacToeStateRegistry) are saved, in order of board index:
+ *
+ * <pre>
+ *   int:    magic number, "TTTQ"
+ *   short:  format version
+ *   short:  flags (bit 0 set if the learner shares Q-values among symmetric boards)
+ *   int:    number of boards
+ *   int:    CRC32 checksum of the Q-values that follow
+ *   double: the nine Q-values of each board, in cell order
+ * </pre>
+ *
+ * load() copies the Q-values into a TicTacToeQTable that can be trained further, while
+ * map() memory-maps the file and reads Q-values from it directly, so that a serving
+ * process can start without reading or training anything.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public final class TicTacToeQTableSnapshot {
+  public static final String FILE_EXTENSION = ".qtable";
+
+  private static final int MAGIC = 0x54545451;
+  private static final short VERSION = 1;
+  private static final short SYMMETRY_FLAG = 0x1;
+  private static final int HEADER_BYTES = 16;
+
+  /**
+   * Position of each board in a snapshot, by board index, or -1 for boards that aren't reachable
+   */
+  private static final int[] BOARD_ORDINALS = new int[TicTacToeBoard.NUM_POSITIONS];
+
+  private static final int NUM_BOARDS;
+
+  static {
+    int numBoards = 0;
+    for (int boardIndex = 0; boardIndex < TicTacToeBoard.NUM_POSITIONS; boardIndex++) {
+      BOARD_ORDINALS[boardIndex] = TicTacToeStateRegistry.interned(boardIndex) != null ? numBoards++ : -1;
+    }
+    NUM_BOARDS = numBoards;
+  }
+
+  private final TicTacToeQTable qTable;
+
+  private final boolean useSymmetry;
+
+  private TicTacToeQTableSnapshot(TicTacToeQTable qTable, boolean useSymmetry) {
+    this.qTable = qTable;
+    this.useSymmetry = useSymmetry;
+  }
+
+  public TicTacToeQTable getQTable() {
+    return qTable;
+  }
+
+  /**
+   * @return Whether the Q-values were learned with symmetric boards sharing Q-values
+   */
+  public boolean isUseSymmetry() {
+    return useSymmetry;
+  }
+
+  /**
+   * Create a learner that starts from the snapshot's Q-values.  Besides being trained
+   * further, the learner is a QProvider, so it can back an EpsilonGreedy policy, or serve
+   * as the Q-value initialization function of a BURLAP QLearning agent.
+   */
+  public TicTacToeDenseQLearning createLearner(double gamma, double learningRate) {
+    TicTacToeDenseQLearning learner = new TicTacToeDenseQLearning(qTable, gamma, learningRate);
+    learner.setUseSymmetry(useSymmetry);
+    return learner;
+  }
+
+  /**
+   * Save the Q-values of a dense learner
+   */
+  public static void save(TicTacToeDenseQLearning learner, String path) throws IOException {
+    save(learner.getQTable(), learner.isUseSymmetry(), path);
+  }
+
+  /**
+   * Save the Q-values of the reachable boards in a table
+   *
+   * @param useSymmetry Whether the Q-values were learned with symmetric boards sharing Q-values
+   */
+  public static void save(TicTacToeQTable qTable, boolean useSymmetry, String path) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + NUM_BOARDS * TicTacToeState.NUM_CELLS * Double.BYTES);
+    buffer.position(HEADER_BYTES);
+    for (int boardIndex = 0; boardIndex < TicTacToeBoard.NUM_POSITIONS; boardIndex++) {
+      if (BOARD_ORDINALS[boardIndex] != -1) {
+        for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+          buffer.putDouble(qTable.qValue(boardIndex, cell));
+        }
+      }
+    }
+
+    buffer.position(HEADER_BYTES);
+    CRC32 crc = new CRC32();
+    crc.update(buffer);
+
+    buffer.putInt(0, MAGIC);
+    buffer.putShort(4, VERSION);
+    buffer.putShort(6, useSymmetry ? SYMMETRY_FLAG : 0);
+    buffer.putInt(8, NUM_BOARDS);
+    buffer.putInt(12, (int)crc.getValue());
+    buffer.rewind();
+
+    Path filePath = Paths.get(path);
+    if (filePath.getParent() != null) {
+      Files.createDirectories(filePath.getParent());
+    }
+    try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+
+  /**
+   * Build a table from the Q-values that any Q-function (for example a BURLAP QLearning
+   * agent) gives the empty cells of each reachable board, so that it can be saved
+   */
+  public static TicTacToeQTable capture(QFunction qFunction) {
+    TicTacToeQTable qTable = new TicTacToeQTable(0.);
+    for (int boardIndex = 0; boardIndex < TicTacToeBoard.NUM_POSITIONS; boardIndex++) {
+      TicTacToeState state = TicTacToeStateRegistry.interned(boardIndex);
+      if (state != null && state.statusCode() == TicTacToeBoard.STATUS_IN_PROGRESS) {
+        for (int cells = state.emptyMask(); cells != 0; cells &= cells - 1) {
+          int cell = Integer.numberOfTrailingZeros(cells);
+          qTable.setQValue(boardIndex, cell, qFunction.qValue(state, MoveAction.forCell(cell)));
+        }
+      }
+    }
+    return qTable;
+  }
+
+  /**
+   * Read a snapshot into a new TicTacToeQTable, which may be trained further.  The Q-values
+   * of boards that aren't reachable are zero.
+   */
+  public static TicTacToeQTableSnapshot load(String path) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get(path)));
+    boolean useSymmetry = readHeader(buffer, path);
+
+    TicTacToeQTable qTable = new TicTacToeQTable(0.);
+    DoubleBuffer qValues = qValueBuffer(buffer);
+    for (int boardIndex = 0; boardIndex < TicTacToeBoard.NUM_POSITIONS; boardIndex++) {
+      int ordinal = BOARD_ORDINALS[boardIndex];
+      if (ordinal != -1) {
+        for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+          qTable.setQValue(boardIndex, cell, qValues.get(ordinal * TicTacToeState.NUM_CELLS + cell));
+        }
+      }
+    }
+    return new TicTacToeQTableSnapshot(qTable, useSymmetry);
+  }
+
+  /**
+   * Memory-map a snapshot, whose Q-values are then read directly from the file.  The
+   * table is read-only: its setQValue() and update() methods throw UnsupportedOperationException.
+   */
+  public static TicTacToeQTableSnapshot map(String path) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    boolean useSymmetry = readHeader(buffer, path);
+    return new TicTacToeQTableSnapshot(new MappedQTable(qValueBuffer(buffer)), useSymmetry);
+  }
+
+  /**
+   * Check the header and checksum of a snapshot
+   *
+   * @return Whether the snapshot's symmetry flag is set
+   */
+  private static boolean readHeader(ByteBuffer buffer, String path) throws IOException {
+    if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a Q-table snapshot: " + path);
+    }
+    if (buffer.getShort(4) != VERSION) {
+      throw new IOException("Unsupported Q-table snapshot version " + buffer.getShort(4) + ": " + path);
+    }
+    if (buffer.getInt(8) != NUM_BOARDS ||
+        buffer.limit() != HEADER_BYTES + NUM_BOARDS * TicTacToeState.NUM_CELLS * Double.BYTES) {
+      throw new IOException("Q-table snapshot has the wrong size: " + path);
+    }
+
+    ByteBuffer qValueBytes = buffer.duplicate();
+    qValueBytes.position(HEADER_BYTES);
+    CRC32 crc = new CRC32();
+    crc.update(qValueBytes);
+    if ((int)crc.getValue() != buffer.getInt(12)) {
+      throw new IOException("Q-table snapshot checksum mismatch: " + path);
+    }
+
+    return (buffer.getShort(6) & SYMMETRY_FLAG) != 0;
+  }
+
+  private static DoubleBuffer qValueBuffer(ByteBuffer buffer) {
+    ByteBuffer qValueBytes = buffer.duplicate();
+    qValueBytes.position(HEADER_BYTES);
+    return qValueBytes.slice().asDoubleBuffer();
+  }
+
+  /**
+   * Read-only TicTacToeQTable backed by the Q-values of a memory-mapped snapshot
+   */
+  private static class MappedQTable extends TicTacToeQTable {
+    private final DoubleBuffer mappedQValues;
+
+    private MappedQTable(DoubleBuffer mappedQValues) {
+      this.mappedQValues = mappedQValues;
+    }
+
+    @Override
+    public double qValue(int boardIndex, int cell) {
+      int ordinal = BOARD_ORDINALS[boardIndex];
+      return ordinal == -1 ? 0. : mappedQValues.get(ordinal * TicTacToeState.NUM_CELLS + cell);
+    }
+
+    @Override
+    public void setQValue(int boardIndex, int cell, double q) {
+      throw new UnsupportedOperationException("Memory-mapped Q-table snapshot is read-only");
+    }
+
+    @Override
+    public void update(int boardIndex, int cell, double target, double learningRate) {
+      throw new UnsupportedOperationException("Memory-mapped Q-table snapshot is read-only");
+    }
+  }
+}
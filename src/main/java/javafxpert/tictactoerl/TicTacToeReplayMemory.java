@@ -0,0 +1,269 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Fixed-capacity ring buffer of transitions experienced in a TicTacToeEnv, from which a
+ * learner such as TicTacToeDenseQLearning replays batches of updates.  Each transition is
+ * kept as primitives in parallel arrays (board index, cell played, reward, next board index
+ * and whether the next board is terminal), so no TicTacToeState objects are held, and
+ * adding a transition never allocates.  Once full, the oldest transition is overwritten.
+ *
+ * Transitions are sampled either uniformly, or in proportion to their priority raised to
+ * a given exponent.  A transition's priority is the magnitude of its TD error when it was
+ * last replayed, and new transitions get the highest priority seen so far, so that each is
+ * replayed at least once soon after it is added.  Priorities are kept in a sum tree, so that
+ * sampling and updating a priority take time logarithmic in the capacity.
+ *
+ * Sampling by priority replays transitions with large TD errors more often than they were
+ * experienced, which biases the learned Q-values toward them.  A learner corrects for this by
+ * scaling each replayed update by importanceWeight(), which is (N * P(i))^-beta normalized by its
+ * maximum over the memory, where P(i) is the probability of sampling transition i from the N held.
+ *
+ * A replay memory is not thread-safe; give each learning thread its own.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeReplayMemory {
+  /**
+   * Added to the magnitude of each TD error, so that no transition stops being replayed
+   */
+  private static final double MIN_PRIORITY = 1e-3;
+
+  private final int capacity;
+  private final int[] boardIndices;
+  private final byte[] cells;
+  private final float[] rewards;
+  private final int[] nextBoardIndices;
+  private final boolean[] terminals;
+
+  /**
+   * Exponent applied to priorities when sampling, where zero means uniform sampling
+   */
+  private final double priorityExponent;
+
+  /**
+   * Exponent (beta) of the importance-sampling weights, where one fully corrects for
+   * sampling by priority, and zero doesn't correct at all
+   */
+  private double importanceExponent;
+
+  /**
+   * Sum tree of the sampling weights, with the weight of slot i at leaf treeSize + i, and
+   * the sum of the weights of the children of node n at node n (the root being node 1)
+   */
+  private final double[] sumTree;
+
+  /**
+   * Tree of the same shape holding the minimum sampling weight below each node, with
+   * empty slots holding positive infinity
+   */
+  private final double[] minTree;
+  private final int treeSize;
+
+  private double maxPriority = 1.;
+  private int next = 0;
+  private int size = 0;
+
+  /**
+   * Create a replay memory that samples uniformly
+   */
+  public TicTacToeReplayMemory(int capacity) {
+    this(capacity, 0.);
+  }
+
+  /**
+   * Create a replay memory that samples in proportion to priority^priorityExponent,
+   * or uniformly if priorityExponent is zero, and fully corrects for sampling by priority
+   */
+  public TicTacToeReplayMemory(int capacity, double priorityExponent) {
+    this(capacity, priorityExponent, 1.);
+  }
+
+  /**
+   * Create a replay memory that samples in proportion to priority^priorityExponent,
+   * or uniformly if priorityExponent is zero
+   *
+   * @param importanceExponent Exponent (beta) of the importance-sampling weights, from 0 to 1
+   */
+  public TicTacToeReplayMemory(int capacity, double priorityExponent, double importanceExponent) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.priorityExponent = priorityExponent;
+    this.importanceExponent = importanceExponent;
+    boardIndices = new int[capacity];
+    cells = new byte[capacity];
+    rewards = new float[capacity];
+    nextBoardIndices = new int[capacity];
+    terminals = new boolean[capacity];
+    if (isPrioritized()) {
+      int leaves = 1;
+      while (leaves < capacity) {
+        leaves <<= 1;
+      }
+      treeSize = leaves;
+      sumTree = new double[2 * treeSize];
+      minTree = new double[2 * treeSize];
+      Arrays.fill(minTree, Double.POSITIVE_INFINITY);
+    }
+    else {
+      treeSize = 0;
+      sumTree = null;
+      minTree = null;
+    }
+  }
+
+  public boolean isPrioritized() {
+    return priorityExponent != 0.;
+  }
+
+  public double getImportanceExponent() {
+    return importanceExponent;
+  }
+
+  /**
+   * Set the exponent (beta) of the importance-sampling weights, for example to anneal it
+   * toward one as training proceeds
+   */
+  public void setImportanceExponent(double importanceExponent) {
+    this.importanceExponent = importanceExponent;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * @return Number of transitions held
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Add a transition, overwriting the oldest one if the memory is full
+   */
+  public void add(int boardIndex, int cell, double reward, int nextBoardIndex, boolean terminal) {
+    int slot = next;
+    boardIndices[slot] = boardIndex;
+    cells[slot] = (byte)cell;
+    rewards[slot] = (float)reward;
+    nextBoardIndices[slot] = nextBoardIndex;
+    terminals[slot] = terminal;
+    if (isPrioritized()) {
+      setWeight(slot, Math.pow(maxPriority, priorityExponent));
+    }
+    next = next + 1 == capacity ? 0 : next + 1;
+    size = Math.min(size + 1, capacity);
+  }
+
+  /**
+   * @return Slot of a transition chosen at random, uniformly or by priority
+   * @throws IllegalStateException if the memory is empty
+   */
+  public int sample(Random rand) {
+    if (size == 0) {
+      throw new IllegalStateException("Replay memory is empty");
+    }
+    if (!isPrioritized()) {
+      return rand.nextInt(size);
+    }
+
+    // Descend the sum tree toward the leaf whose range of cumulative weight holds the target
+    double target = rand.nextDouble() * sumTree[1];
+    int node = 1;
+    while (node < treeSize) {
+      node <<= 1;
+      if (target >= sumTree[node] && sumTree[node + 1] > 0.) {
+        target -= sumTree[node];
+        node++;
+      }
+    }
+    return node - treeSize;
+  }
+
+  /**
+   * Record the TD error of the transition in the slot when it was last replayed
+   */
+  public void updatePriority(int slot, double tdError) {
+    if (isPrioritized()) {
+      double priority = Math.abs(tdError) + MIN_PRIORITY;
+      maxPriority = Math.max(maxPriority, priority);
+      setWeight(slot, Math.pow(priority, priorityExponent));
+    }
+  }
+
+  /**
+   * @return Importance-sampling weight (at most one) by which to scale the update made when
+   * the transition in the slot is replayed, which is one when sampling uniformly
+   */
+  public double importanceWeight(int slot) {
+    if (!isPrioritized() || importanceExponent == 0.) {
+      return 1.;
+    }
+    return Math.pow(minTree[1] / sumTree[treeSize + slot], importanceExponent);
+  }
+
+  public int boardIndex(int slot) {
+    return boardIndices[slot];
+  }
+
+  public int cell(int slot) {
+    return cells[slot];
+  }
+
+  public double reward(int slot) {
+    return rewards[slot];
+  }
+
+  public int nextBoardIndex(int slot) {
+    return nextBoardIndices[slot];
+  }
+
+  public boolean isTerminal(int slot) {
+    return terminals[slot];
+  }
+
+  /**
+   * Remove all transitions
+   */
+  public void clear() {
+    next = 0;
+    size = 0;
+    maxPriority = 1.;
+    if (sumTree != null) {
+      Arrays.fill(sumTree, 0.);
+      Arrays.fill(minTree, Double.POSITIVE_INFINITY);
+    }
+  }
+
+  private void setWeight(int slot, double weight) {
+    int node = treeSize + slot;
+    double delta = weight - sumTree[node];
+    minTree[node] = weight;
+    for (; node >= 1; node >>= 1) {
+      sumTree[node] += delta;
+      if (node < treeSize) {
+        minTree[node] = Math.min(minTree[2 * node], minTree[2 * node + 1]);
+      }
+    }
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.valuefunction.QFunction;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Retrograde solver of m,n,k-games: tic-tac-toe played on a board of the given number of
+ * rows and columns, where the first player to get k marks in a row, column or diagonal wins.
+ * Positions are enumerated layer by layer according to the number of marks on the board.
+ * The full layer is resolved first, and values are propagated backwards, so each position
+ * is evaluated once from the values of its children, which are all in the next layer.  The
+ * positions of each layer are split among the threads of a ForkJoinPool, which write their
+ * values into a single byte array indexed as TicTacToeBoard.index() indexes the 3x3 board.
+ *
+ * Values are from the point of view of the mark to move, as in TicTacToeMinimaxTable:
+ * positive if it can force a win, negative if the other mark can, and zero if best play
+ * leads to a draw, with the magnitude of a win or loss one more than the number of empty
+ * cells left when the game ends.  On the 3x3 board the values of positions in progress
+ * are the same as TicTacToeMinimaxTable's.
+ *
+ * The value array has 3^(rows * columns) elements, so boards are limited to 19 cells
+ * (a 4x4 board needs 43MB).
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeRetrogradeSolver {
+  public static final int MAX_CELLS = 19;
+
+  /**
+   * Number of x-mark masks below which a task evaluates its share of a layer itself
+   */
+  private static final int SPLIT_THRESHOLD = 16;
+
+  private final int rows;
+  private final int columns;
+  private final int k;
+  private final int numCells;
+  private final ForkJoinPool pool;
+
+  /**
+   * Masks of the cells of every k-in-a-row line on the board
+   */
+  private final int[] lineMasks;
+
+  /**
+   * Powers of three, the weight of each cell in a board index
+   */
+  private final int[] pow3;
+
+  /**
+   * Value of each position to the mark to move, indexed by board index
+   */
+  private byte[] values;
+
+  public TicTacToeRetrogradeSolver(int rows, int columns, int k) {
+    this(rows, columns, k, ForkJoinPool.commonPool());
+  }
+
+  public TicTacToeRetrogradeSolver(int rows, int columns, int k, ForkJoinPool pool) {
+    if (rows < 1 || columns < 1 || rows * columns > MAX_CELLS) {
+      throw new IllegalArgumentException("Board must have between 1 and " + MAX_CELLS + " cells: " +
+          rows + "x" + columns);
+    }
+    if (k < 1 || k > Math.max(rows, columns)) {
+      throw new IllegalArgumentException("Line length doesn't fit on a " + rows + "x" + columns + " board: " + k);
+    }
+    this.rows = rows;
+    this.columns = columns;
+    this.k = k;
+    this.numCells = rows * columns;
+    this.pool = pool;
+    this.lineMasks = lineMasks();
+    this.pow3 = new int[numCells];
+    for (int cell = 0, pow = 1; cell < numCells; cell++, pow *= 3) {
+      pow3[cell] = pow;
+    }
+  }
+
+  /**
+   * Evaluate every position on the board, from the full layer back to the empty board
+   */
+  public void solve() {
+    int numPositions = pow3[numCells - 1] * 3;
+    values = new byte[numPositions];
+    for (int numMarks = numCells; numMarks >= 0; numMarks--) {
+      int[] xMasks = combinations(numCells, (numMarks + 1) / 2);
+      pool.invoke(new LayerTask(numMarks, xMasks, 0, xMasks.length));
+    }
+  }
+
+  /**
+   * @return Value of the position to the mark to move, which is X when both marks have
+   * been played the same number of times, and O otherwise
+   */
+  public int value(int xMask, int oMask) {
+    return value(index(xMask, oMask));
+  }
+
+  /**
+   * @return Value of the position with the given base-3 index to the mark to move
+   */
+  public int value(int index) {
+    if (values == null) {
+      throw new IllegalStateException("Positions haven't been solved");
+    }
+    return values[index];
+  }
+
+  /**
+   * @return Base-3 index of the position, where an X in cell n adds 3^n and an O adds 2 * 3^n
+   */
+  public int index(int xMask, int oMask) {
+    int index = 0;
+    for (int marks = xMask; marks != 0; marks &= marks - 1) {
+      index += pow3[Integer.numberOfTrailingZeros(marks)];
+    }
+    for (int marks = oMask; marks != 0; marks &= marks - 1) {
+      index += 2 * pow3[Integer.numberOfTrailingZeros(marks)];
+    }
+    return index;
+  }
+
+  /**
+   * Audit the greedy moves of a trained 3x3 agent, such as a QLearning or TicTacToeDenseQLearning
+   * agent, against the solved values
+   *
+   * @param qFunction Q-function of the agent
+   * @param agentMark Mark that the agent plays, whose positions are audited
+   * @return Number of reachable positions on which the greedy move throws away a win or a draw
+   */
+  public int countBlunders(QFunction qFunction, char agentMark) {
+    if (numCells != TicTacToeState.NUM_CELLS || k != 3) {
+      throw new IllegalStateException("Only agents of the 3x3 game can be audited");
+    }
+    TicTacToeFrozenPolicy policy = TicTacToeFrozenPolicy.compile(qFunction);
+    int blunders = 0;
+    for (int boardIndex = 0; boardIndex < TicTacToeBoard.NUM_POSITIONS; boardIndex++) {
+      int bestCell = policy.bestCell(boardIndex);
+      if (bestCell != -1 && toMove(boardIndex) == agentMark) {
+        int childIndex = boardIndex + pow3[bestCell] * (agentMark == TicTacToeState.X_MARK ? 1 : 2);
+        if (Integer.signum(-value(childIndex)) < Integer.signum(value(boardIndex))) {
+          blunders++;
+        }
+      }
+    }
+    return blunders;
+  }
+
+  /**
+   * @return Mark to move on the 3x3 board with the given index
+   */
+  private static char toMove(int boardIndex) {
+    return Integer.bitCount(TicTacToePositionTable.xMask(boardIndex)) ==
+        Integer.bitCount(TicTacToePositionTable.oMask(boardIndex)) ? TicTacToeState.X_MARK : TicTacToeState.O_MARK;
+  }
+
+  /**
+   * @return Masks of every horizontal, vertical and diagonal line of k cells
+   */
+  private int[] lineMasks() {
+    int[] masks = new int[4 * numCells];
+    int numLines = 0;
+    int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+    for (int row = 0; row < rows; row++) {
+      for (int column = 0; column < columns; column++) {
+        for (int[] direction : directions) {
+          int endRow = row + (k - 1) * direction[0];
+          int endColumn = column + (k - 1) * direction[1];
+          if (endRow < rows && endColumn >= 0 && endColumn < columns) {
+            int mask = 0;
+            for (int i = 0; i < k; i++) {
+              mask |= 1 << ((row + i * direction[0]) * columns + column + i * direction[1]);
+            }
+            masks[numLines++] = mask;
+          }
+        }
+      }
+    }
+    return Arrays.copyOf(masks, numLines);
+  }
+
+  private boolean hasLine(int marks) {
+    for (int lineMask : lineMasks) {
+      if ((marks & lineMask) == lineMask) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return Every mask of n bits in which the given number of bits are set, in increasing order
+   */
+  private static int[] combinations(int n, int numSet) {
+    int count = 1;
+    for (int i = 0; i < numSet; i++) {
+      count = count * (n - i) / (i + 1);
+    }
+    int[] masks = new int[count];
+    int mask = (1 << numSet) - 1;
+    for (int i = 0; i < count; i++) {
+      masks[i] = mask;
+      mask = nextCombination(mask);
+    }
+    return masks;
+  }
+
+  /**
+   * @return The next larger mask with the same number of bits set (Gosper's hack)
+   */
+  private static int nextCombination(int mask) {
+    if (mask == 0) {
+      return 0;
+    }
+    int lowestBit = mask & -mask;
+    int ripple = mask + lowestBit;
+    return (((ripple ^ mask) >>> 2) / lowestBit) | ripple;
+  }
+
+  /**
+   * Evaluates the positions of one layer whose X marks are among a range of x-mark masks,
+   * splitting the range among subtasks until it is small
+   */
+  private class LayerTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int numMarks;
+    private final int[] xMasks;
+    private final int from;
+    private final int to;
+
+    LayerTask(int numMarks, int[] xMasks, int from, int to) {
+      this.numMarks = numMarks;
+      this.xMasks = xMasks;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > SPLIT_THRESHOLD) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new LayerTask(numMarks, xMasks, from, middle), new LayerTask(numMarks, xMasks, middle, to));
+        return;
+      }
+
+      boolean xToMove = numMarks % 2 == 0;
+      int numO = numMarks / 2;
+      int[] freeCells = new int[numCells];
+      for (int i = from; i < to; i++) {
+        int xMask = xMasks[i];
+        int numFree = 0;
+        for (int cells = ~xMask & ((1 << numCells) - 1); cells != 0; cells &= cells - 1) {
+          freeCells[numFree++] = Integer.numberOfTrailingZeros(cells);
+        }
+
+        // Place the O marks on each combination of the cells that X leaves free
+        int xIndex = index(xMask, 0);
+        for (int choice = (1 << numO) - 1; choice < 1 << numFree; choice = nextCombination(choice)) {
+          int oMask = 0;
+          int index = xIndex;
+          for (int chosen = choice; chosen != 0; chosen &= chosen - 1) {
+            int cell = freeCells[Integer.numberOfTrailingZeros(chosen)];
+            oMask |= 1 << cell;
+            index += 2 * pow3[cell];
+          }
+          values[index] = (byte)evaluate(xMask, oMask, index, xToMove);
+          if (choice == 0) {
+            break;
+          }
+        }
+      }
+    }
+
+    /**
+     * @return Value of the position to the mark to move, from the values of the next layer
+     */
+    private int evaluate(int xMask, int oMask, int index, boolean xToMove) {
+      int emptyMask = ~(xMask | oMask) & ((1 << numCells) - 1);
+      int numEmpty = Integer.bitCount(emptyMask);
+      if (hasLine(xToMove ? oMask : xMask)) {
+        // Only the mark that just moved can have completed a line
+        return -(numEmpty + 1);
+      }
+      if (emptyMask == 0) {
+        return 0;
+      }
+
+      int bestValue = Integer.MIN_VALUE;
+      int moverDigit = xToMove ? 1 : 2;
+      for (int cells = emptyMask; cells != 0; cells &= cells - 1) {
+        int cell = Integer.numberOfTrailingZeros(cells);
+        bestValue = Math.max(bestValue, -values[index + moverDigit * pow3[cell]]);
+      }
+      return bestValue;
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    int[][] variants = {{3, 3, 3}, {3, 4, 3}, {4, 4, 3}, {4, 4, 4}};
+    for (int[] variant : variants) {
+      TicTacToeRetrogradeSolver solver = new TicTacToeRetrogradeSolver(variant[0], variant[1], variant[2]);
+      long startNanos = System.nanoTime();
+      solver.solve();
+      System.out.println(variant[0] + "," + variant[1] + "," + variant[2] + ": value of the empty board " +
+          solver.value(0, 0) + ", solved in " + (System.nanoTime() - startNanos) / 1000000 + " ms using " +
+          ForkJoinPool.commonPool().getParallelism() + " threads");
+    }
+
+    // Audit an agent trained by TicTacToeQPlaying self-play, if there is one, or else the exact planner's policy
+    TicTacToeRetrogradeSolver solver = new TicTacToeRetrogradeSolver(3, 3, 3);
+    solver.solve();
+    String snapshotPath = "output/qplaying-selfplay" + TicTacToeQTableSnapshot.FILE_EXTENSION;
+    QFunction agent = new File(snapshotPath).exists() ?
+        TicTacToeQTableSnapshot.load(snapshotPath).createLearner(0.90, 0.) :
+        new TicTacToeDenseQLearning(new TicTacToeExactPlanner(OpponentStrategies.WIN_OR_BLOCK_OR_CENTER_OR_CORNER_OR_RANDOM, 0.90).solve(), 0.90, 0.);
+    System.out.println("Blunders as X: " + solver.countBlunders(agent, TicTacToeState.X_MARK) +
+        ", as O: " + solver.countBlunders(agent, TicTacToeState.O_MARK));
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.mdp.core.action.Action;
+import burlap.mdp.core.state.State;
+import burlap.mdp.singleagent.environment.Environment;
+import burlap.mdp.singleagent.environment.EnvironmentOutcome;
+
+/**
+ * Game of tic-tac-toe between two learning agents, each of which sees the game through
+ * its own side of the environment (see side()).  Each side is an ordinary single-agent
+ * Environment, so any LearningAgent can play it: executeAction() places the agent's mark,
+ * then waits for the other agent's reply, and returns an EnvironmentOutcome from the point
+ * of view of the side's agent, with the same rewards as TicTacToeEnv.  The O side's
+ * currentObservation() likewise waits for X's first move.
+ *
+ * An illegal move (outside the board, or to an occupied cell) leaves the board unchanged and
+ * the turn with the agent that attempted it, which receives MOVE_REWARD and moves again,
+ * so the other agent is never asked to reply to a move that wasn't made.
+ *
+ * Each agent therefore runs its learning episodes on its own thread, and the two threads
+ * take turns.  resetEnvironment() starts a new game once both sides have called it, so each
+ * agent should reset after each of its episodes, and both agents should run the same
+ * number of episodes.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeSelfPlayEnv {
+  /**
+   * Cells on the game board occupied by X and by O, where bit n corresponds to cell n
+   */
+  private int xMask;
+  private int oMask;
+
+  /**
+   * One of the TicTacToeBoard.STATUS_* codes
+   */
+  private int gameStatus;
+
+  /**
+   * Mark whose turn it is
+   */
+  private char toMove;
+
+  /**
+   * Number of games started, and number of sides that have asked for the next one
+   */
+  private long gameNumber = 0;
+  private int resetRequests = 0;
+
+  /**
+   * Counters of game outcomes, from the point of view of the X player
+   */
+  private TicTacToeMetrics metrics = new TicTacToeMetrics();
+
+  private final Side xSide = new Side(TicTacToeState.X_MARK);
+  private final Side oSide = new Side(TicTacToeState.O_MARK);
+
+  public TicTacToeSelfPlayEnv() {
+    newGame();
+  }
+
+  /**
+   * @return The side of the environment through which the player of the given mark plays
+   */
+  public Environment side(char mark) {
+    return mark == TicTacToeState.X_MARK ? xSide : oSide;
+  }
+
+  public synchronized TicTacToeMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Replace the counters of game outcomes, for example with ones shared by several games
+   */
+  public synchronized void setMetrics(TicTacToeMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  private void newGame() {
+    xMask = 0;
+    oMask = 0;
+    gameStatus = TicTacToeBoard.STATUS_IN_PROGRESS;
+    toMove = TicTacToeState.X_MARK;
+    gameNumber++;
+    resetRequests = 0;
+  }
+
+  private TicTacToeState currentState() {
+    return TicTacToeStateRegistry.state(xMask, oMask, gameStatus);
+  }
+
+  /**
+   * Wait, with the monitor held, until it is the given mark's turn or the game is over
+   */
+  private void awaitTurn(char mark) {
+    while (gameStatus == TicTacToeBoard.STATUS_IN_PROGRESS && toMove != mark) {
+      try {
+        wait();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for the other player to move", e);
+      }
+    }
+  }
+
+  /**
+   * Count the outcome of the game that has just finished
+   */
+  private void recordOutcome() {
+    if (gameStatus == TicTacToeBoard.STATUS_X_WON) {
+      metrics.recordWin();
+    }
+    else if (gameStatus == TicTacToeBoard.STATUS_O_WON) {
+      metrics.recordLoss();
+    }
+    else {
+      metrics.recordDraw();
+    }
+  }
+
+  /**
+   * The game as seen by the player of one mark
+   */
+  private class Side implements Environment {
+    private final char mark;
+
+    /**
+     * Reward of this side's last step, guarded by the environment's monitor
+     */
+    private double reward = 0.;
+
+    Side(char mark) {
+      this.mark = mark;
+    }
+
+    @Override
+    public State currentObservation() {
+      synchronized (TicTacToeSelfPlayEnv.this) {
+        awaitTurn(mark);
+        return currentState();
+      }
+    }
+
+    @Override
+    public EnvironmentOutcome executeAction(Action action) {
+      synchronized (TicTacToeSelfPlayEnv.this) {
+        awaitTurn(mark);
+        if (gameStatus != TicTacToeBoard.STATUS_IN_PROGRESS) {
+          throw new IllegalStateException("Game is over");
+        }
+        TicTacToeState priorState = currentState();
+
+        int cellNum = ((MoveAction)action).getActionId();
+        metrics.recordStep();
+        if (cellNum < 0 || cellNum >= TicTacToeState.NUM_CELLS ||
+            ((xMask | oMask) & (1 << cellNum)) != 0) {
+
+          // Illegal move attempted so don't change the board, and keep the turn
+          metrics.recordIllegalMove();
+          reward = TicTacToeEnv.MOVE_REWARD;
+          return new EnvironmentOutcome(priorState, action, priorState, reward, false);
+        }
+        if (mark == TicTacToeState.X_MARK) {
+          xMask |= 1 << cellNum;
+        }
+        else {
+          oMask |= 1 << cellNum;
+        }
+
+        gameStatus = TicTacToePositionTable.status(TicTacToeBoard.index(xMask, oMask));
+        toMove = mark == TicTacToeState.X_MARK ? TicTacToeState.O_MARK : TicTacToeState.X_MARK;
+        if (gameStatus != TicTacToeBoard.STATUS_IN_PROGRESS) {
+          recordOutcome();
+        }
+        TicTacToeSelfPlayEnv.this.notifyAll();
+
+        // Wait for the other player's reply, unless this move ended the game
+        awaitTurn(mark);
+
+        boolean terminated = gameStatus != TicTacToeBoard.STATUS_IN_PROGRESS;
+        if (gameStatus == TicTacToeBoard.winStatus(mark)) {
+          reward = TicTacToeEnv.WIN_REWARD;
+        }
+        else if (terminated && gameStatus != TicTacToeBoard.STATUS_CATS_GAME) {
+          reward = TicTacToeEnv.LOSE_REWARD;
+        }
+        else {
+          reward = TicTacToeEnv.MOVE_REWARD;
+        }
+        return new EnvironmentOutcome(priorState, action, currentState(), reward, terminated);
+      }
+    }
+
+    @Override
+    public double lastReward() {
+      synchronized (TicTacToeSelfPlayEnv.this) {
+        return reward;
+      }
+    }
+
+    @Override
+    public boolean isInTerminalState() {
+      synchronized (TicTacToeSelfPlayEnv.this) {
+        return gameStatus != TicTacToeBoard.STATUS_IN_PROGRESS;
+      }
+    }
+
+    /**
+     * Ask for a new game, and wait until the other side has asked for it too
+     */
+    @Override
+    public void resetEnvironment() {
+      synchronized (TicTacToeSelfPlayEnv.this) {
+        long currentGame = gameNumber;
+        if (++resetRequests == 2) {
+          newGame();
+          TicTacToeSelfPlayEnv.this.notifyAll();
+        }
+        while (gameNumber == currentGame) {
+          try {
+            TicTacToeSelfPlayEnv.this.wait();
+          }
+          catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the other player to reset", e);
+          }
+        }
+        reward = 0.;
+      }
+    }
+  }
+}
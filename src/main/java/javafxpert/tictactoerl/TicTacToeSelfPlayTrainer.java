@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.mdp.singleagent.environment.Environment;
+
+import javax.management.JMException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trains an X learner and an O learner against each other, in several self-play games at
+ * once.  Each game is a TicTacToeSelfPlayEnv whose two sides are played by dense Q-learners
+ * on their own threads, so each game runs on a pair of threads.
+ *
+ * X learns only the values of boards with X to move, and O only those with O to move, so
+ * all of the learners can share one Q-table without the X and O learners disturbing each
+ * other, and the table they leave behind plays both marks, as TicTacToeQPlaying expects.
+ * Learners of the same mark in different games update the table as in
+ * TicTacToeParallelTrainer's HOGWILD mode.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeSelfPlayTrainer {
+  private final int numGames;
+
+  private final TicTacToeQTable qTable;
+
+  private double gamma = 0.90;
+  private double learningRate = 1.0;
+  private double epsilon = 0.1;
+
+  /**
+   * Total number of games completed
+   */
+  private final LongAdder numEpisodes = new LongAdder();
+
+  /**
+   * Outcomes of all of the games, from the point of view of X
+   */
+  private final TicTacToeMetrics metrics = new TicTacToeMetrics();
+
+  public TicTacToeSelfPlayTrainer(int numGames, double qInit) {
+    this.numGames = numGames;
+    this.qTable = new TicTacToeQTable(qInit);
+  }
+
+  public TicTacToeQTable getQTable() {
+    return qTable;
+  }
+
+  public void setGamma(double gamma) {
+    this.gamma = gamma;
+  }
+
+  public void setLearningRate(double learningRate) {
+    this.learningRate = learningRate;
+  }
+
+  public void setEpsilon(double epsilon) {
+    this.epsilon = epsilon;
+  }
+
+  public long getNumEpisodes() {
+    return numEpisodes.sum();
+  }
+
+  public TicTacToeMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Create a learner, for one side of one game, that updates the shared Q-table
+   */
+  public TicTacToeDenseQLearning createLearner() {
+    TicTacToeDenseQLearning learner = new TicTacToeDenseQLearning(qTable, gamma, learningRate);
+    learner.setEpsilon(epsilon);
+    return learner;
+  }
+
+  /**
+   * Play self-play games on all of the pairs of threads, and wait for them to finish
+   *
+   * @param episodesPerGame Number of games played in each self-play environment
+   * @return Aggregate number of games per second
+   */
+  public double train(int episodesPerGame) throws InterruptedException {
+    CountDownLatch startSignal = new CountDownLatch(1);
+    List<Thread> players = new ArrayList<>();
+    for (int i = 0; i < numGames; i++) {
+      TicTacToeSelfPlayEnv env = new TicTacToeSelfPlayEnv();
+      env.setMetrics(metrics);
+      for (char mark : new char[] {TicTacToeState.X_MARK, TicTacToeState.O_MARK}) {
+        TicTacToeDenseQLearning learner = createLearner();
+        Environment side = env.side(mark);
+        boolean countsEpisodes = mark == TicTacToeState.X_MARK;
+        Thread player = new Thread(() -> {
+          try {
+            startSignal.await();
+          }
+          catch (InterruptedException e) {
+            return;
+          }
+          for (int episode = 0; episode < episodesPerGame; episode++) {
+            learner.runLearningEpisode(side);
+            side.resetEnvironment();
+            if (countsEpisodes) {
+              numEpisodes.increment();
+            }
+          }
+        }, "self-play-" + i + "-" + mark);
+        players.add(player);
+        player.start();
+      }
+    }
+
+    long episodesBefore = numEpisodes.sum();
+    long startTime = System.nanoTime();
+    startSignal.countDown();
+    for (Thread player : players) {
+      player.join();
+    }
+    long elapsedNanos = System.nanoTime() - startTime;
+
+    return (numEpisodes.sum() - episodesBefore) * 1e9 / elapsedNanos;
+  }
+
+  /**
+   * Report the self-play throughput with increasing numbers of games, up to the number of processors
+   */
+  public static void main(String[] args) throws InterruptedException, JMException {
+    int episodesPerGame = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+    int maxGames = Runtime.getRuntime().availableProcessors();
+
+    for (int numGames = 1; numGames <= maxGames; numGames *= 2) {
+      TicTacToeSelfPlayTrainer trainer = new TicTacToeSelfPlayTrainer(numGames, 0.0);
+      trainer.getMetrics().register("javafxpert.tictactoerl:type=TicTacToeMetrics,name=selfplay-" + numGames);
+      double episodesPerSecond = trainer.train(episodesPerGame);
+      System.out.println(numGames + " games: " + Math.round(episodesPerSecond) + " episodes/sec, " +
+          trainer.getMetrics());
+    }
+  }
+}
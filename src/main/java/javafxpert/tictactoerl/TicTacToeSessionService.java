@@ -0,0 +1,286 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.policy.Policy;
+import burlap.mdp.core.action.Action;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays any number of concurrent games between human players (O) and a trained agent (X),
+ * each game held in its own session keyed by a session id.  Unlike TicTacToePlayerEnv,
+ * which holds a single game, the service may be called from many threads at once: sessions
+ * are kept in a ConcurrentHashMap, and moves within a session are serialized.
+ *
+ * All sessions share one policy, which must be safe for concurrent use without being
+ * modified, as a TicTacToeFrozenPolicy is.  Sessions that go unused for longer than the
+ * idle timeout are evicted, and the number of open sessions is limited, so memory stays
+ * bounded however many games are started and abandoned.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeSessionService implements Closeable {
+  private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+  private static final int DEFAULT_MAX_SESSIONS = 1000000;
+
+  private final Policy policy;
+
+  private final long idleTimeoutNanos;
+
+  private final int maxSessions;
+
+  private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+  /**
+   * Number of open sessions, including those reserved by createSession() but not yet in the
+   * map.  A slot is reserved before a session is added, and released only by whichever call
+   * removes the session, so the limit holds however many threads create sessions at once.
+   */
+  private final AtomicInteger numOpenSessions = new AtomicInteger();
+
+  private final AtomicLong nextSessionNum = new AtomicLong();
+
+  /**
+   * Counters of game outcomes over all sessions, from the point of view of the agent
+   */
+  private final TicTacToeMetrics metrics = new TicTacToeMetrics();
+
+  private final ScheduledExecutorService evictionExecutor;
+
+  public TicTacToeSessionService(Policy policy) {
+    this(policy, DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_MAX_SESSIONS);
+  }
+
+  /**
+   * @param policy Policy of the agent, shared by all sessions
+   * @param idleTimeoutMillis Time after its last use at which a session is evicted
+   * @param maxSessions Maximum number of open sessions
+   */
+  public TicTacToeSessionService(Policy policy, long idleTimeoutMillis, int maxSessions) {
+    this.policy = policy;
+    this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+    this.maxSessions = maxSessions;
+
+    evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "session-eviction");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long evictionPeriodMillis = Math.max(1, idleTimeoutMillis / 2);
+    evictionExecutor.scheduleWithFixedDelay(this::evictIdleSessions,
+        evictionPeriodMillis, evictionPeriodMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Start a new game, in which the agent makes the first move
+   *
+   * @return Id of the new session
+   * @throws SessionLimitException if the maximum number of sessions are open
+   */
+  public String createSession() {
+    if (!reserveSession()) {
+      evictIdleSessions();
+      if (!reserveSession()) {
+        throw new SessionLimitException("Too many open sessions: " + numOpenSessions.get());
+      }
+    }
+
+    String sessionId = Long.toString(nextSessionNum.incrementAndGet(), 36) + "-" +
+        Long.toHexString(ThreadLocalRandom.current().nextLong());
+    Session session = new Session();
+    synchronized (session) {
+      sessions.put(sessionId, session);
+      playAgentMove(session);
+    }
+    return sessionId;
+  }
+
+  /**
+   * Play the human's move in a session, followed by the agent's reply if the game is still in progress
+   *
+   * @param cell Cell (zero based 0-8) in which the human plays an O
+   * @return State of the game after the agent's reply
+   * @throws NoSuchElementException if there is no such session, for example because it was evicted
+   * @throws IllegalArgumentException if the cell isn't empty
+   * @throws IllegalStateException if the game is over
+   */
+  public TicTacToeState move(String sessionId, int cell) {
+    Session session = session(sessionId);
+    synchronized (session) {
+      session.lastAccessNanos = System.nanoTime();
+      if (session.state.statusCode() != TicTacToeBoard.STATUS_IN_PROGRESS) {
+        throw new IllegalStateException("Game is over in session " + sessionId);
+      }
+      metrics.recordStep();
+      if (cell < 0 || cell >= TicTacToeState.NUM_CELLS || (session.state.emptyMask() & (1 << cell)) == 0) {
+        metrics.recordIllegalMove();
+        throw new IllegalArgumentException("Illegal move to cell " + cell + " in session " + sessionId);
+      }
+
+      int xMask = session.state.xMask();
+      int oMask = session.state.oMask() | 1 << cell;
+      session.state = TicTacToeStateRegistry.state(xMask, oMask, TicTacToeBoard.evalStatus(xMask, oMask));
+      playAgentMove(session);
+      return session.state;
+    }
+  }
+
+  /**
+   * @return Current state of the game in a session
+   * @throws NoSuchElementException if there is no such session
+   */
+  public TicTacToeState state(String sessionId) {
+    Session session = session(sessionId);
+    synchronized (session) {
+      session.lastAccessNanos = System.nanoTime();
+      return session.state;
+    }
+  }
+
+  /**
+   * End a session, whether or not its game is over
+   *
+   * @return Whether the session was open
+   */
+  public boolean closeSession(String sessionId) {
+    if (sessions.remove(sessionId) != null) {
+      numOpenSessions.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  public int numSessions() {
+    return numOpenSessions.get();
+  }
+
+  public TicTacToeMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Remove the sessions that have not been used within the idle timeout.  This is done
+   * periodically, and whenever the maximum number of sessions are open.
+   */
+  public void evictIdleSessions() {
+    long now = System.nanoTime();
+    for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+      if (now - entry.getValue().lastAccessNanos > idleTimeoutNanos &&
+          sessions.remove(entry.getKey(), entry.getValue())) {
+        numOpenSessions.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Stop evicting sessions, and remove them all
+   */
+  @Override
+  public void close() {
+    evictionExecutor.shutdownNow();
+    for (String sessionId : sessions.keySet()) {
+      closeSession(sessionId);
+    }
+  }
+
+  /**
+   * Reserve a slot for a new session, unless the maximum number are already open
+   *
+   * @return Whether a slot was reserved
+   */
+  private boolean reserveSession() {
+    while (true) {
+      int numOpen = numOpenSessions.get();
+      if (numOpen >= maxSessions) {
+        return false;
+      }
+      if (numOpenSessions.compareAndSet(numOpen, numOpen + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private Session session(String sessionId) {
+    Session session = sessions.get(sessionId);
+    if (session == null) {
+      throw new NoSuchElementException("No session " + sessionId);
+    }
+    return session;
+  }
+
+  /**
+   * Play the agent's move (X) if the game is in progress, and count the outcome if the game is then over
+   */
+  private void playAgentMove(Session session) {
+    TicTacToeState state = session.state;
+    if (state.statusCode() == TicTacToeBoard.STATUS_IN_PROGRESS) {
+      Action action = policy.action(state);
+      int cell = action != null ? ((MoveAction)action).getActionId() : -1;
+      if (cell == -1 || (state.emptyMask() & (1 << cell)) == 0) {
+        metrics.recordIllegalMove();
+        cell = OpponentStrategies.RANDOM.chooseCell(state.boardIndex(), TicTacToeState.X_MARK, ThreadLocalRandom.current());
+      }
+      int xMask = state.xMask() | 1 << cell;
+      int oMask = state.oMask();
+      session.state = TicTacToeStateRegistry.state(xMask, oMask, TicTacToeBoard.evalStatus(xMask, oMask));
+    }
+
+    int status = session.state.statusCode();
+    if (status == TicTacToeBoard.STATUS_X_WON) {
+      metrics.recordWin();
+    }
+    else if (status == TicTacToeBoard.STATUS_O_WON) {
+      metrics.recordLoss();
+    }
+    else if (status == TicTacToeBoard.STATUS_CATS_GAME) {
+      metrics.recordDraw();
+    }
+  }
+
+  /**
+   * Thrown by createSession() when the maximum number of sessions are open, which
+   * indicates that the service is overloaded rather than that the caller erred
+   */
+  public static class SessionLimitException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    public SessionLimitException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * Game in progress (or finished) in one session
+   */
+  private static class Session {
+    /**
+     * Current state, always an interned (immutable) state from TicTacToeStateRegistry
+     */
+    private TicTacToeState state = TicTacToeStateRegistry.state(0, 0, TicTacToeBoard.STATUS_IN_PROGRESS);
+
+    private volatile long lastAccessNanos = System.nanoTime();
+  }
+}
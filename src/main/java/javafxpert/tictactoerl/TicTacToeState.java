@@ -24,6 +24,9 @@ import java.util.Arrays;
 import java.util.List;
 
 /**
+ * State of a game of tic-tac-toe.  States obtained from TicTacToeStateRegistry are interned:
+ * they are shared, so they can't be modified, and copy() returns the state itself.
+ *
  * @author James L. Weaver (Twitter: @JavaFXpert)
  */
 @DeepCopyState
@@ -50,35 +53,54 @@ public class TicTacToeState implements MutableState {
   public static String ONE_X_BOARD = "XIIIIIIII"; //TODO: Put back
 
   /**
-   * String representation of cells on the game board.
-   * For example: "XOIIXOXIO"
+   * Cells occupied by X and by O, where bit n corresponds to cell n.
+   * For example, "XOIIXOXIO" has an xMask of 0b001010001 and an oMask of 0b100100010
    */
-  public String gameBoard = EMPTY_BOARD;
+  private int xMask;
+  private int oMask;
 
   /**
    * Game status, specifically, whether the game is in-progress, or if X won,
-   * or if O won, or if it is cat's game (nobody won).
+   * or if O won, or if it is cat's game (nobody won).  One of the TicTacToeBoard.STATUS_* codes.
+   */
+  private int statusCode = TicTacToeBoard.STATUS_IN_PROGRESS;
+
+  /**
+   * Indicates whether this is the shared instance held by TicTacToeStateRegistry
    */
-  public String gameStatus = GAME_STATUS_IN_PROGRESS;
+  private final boolean interned;
 
   private final static List<Object> keys =
       Arrays.asList(VAR_GAME_BOARD, VAR_GAME_STATUS);
 
   public TicTacToeState() {
+    interned = false;
   }
 
   public TicTacToeState(String gameBoard, String gameStatus) {
-    this.gameBoard = gameBoard;
-    this.gameStatus = gameStatus;
+    interned = false;
+    setGameBoard(gameBoard);
+    setGameStatus(gameStatus);
+  }
+
+  public TicTacToeState(int xMask, int oMask, int statusCode) {
+    this(xMask, oMask, statusCode, false);
+  }
+
+  TicTacToeState(int xMask, int oMask, int statusCode, boolean interned) {
+    this.xMask = xMask;
+    this.oMask = oMask;
+    this.statusCode = statusCode;
+    this.interned = interned;
   }
 
   @Override
   public MutableState set(Object variableKey, Object value) {
     if(variableKey.equals(VAR_GAME_BOARD)){
-      this.gameBoard = (String)value;
+      setGameBoard((String)value);
     }
     else if(variableKey.equals(VAR_GAME_STATUS)){
-      this.gameStatus = (String)value;
+      setGameStatus((String)value);
     }
     else{
       throw new UnknownKeyException(variableKey);
@@ -94,17 +116,82 @@ public class TicTacToeState implements MutableState {
   @Override
   public Object get(Object variableKey) {
     if(variableKey.equals(VAR_GAME_BOARD)){
-      return this.gameBoard;
+      return getGameBoard();
     }
     else if(variableKey.equals(VAR_GAME_STATUS)){
-      return this.gameStatus;
+      return getGameStatus();
     }
     throw new UnknownKeyException(variableKey);
   }
 
+  /**
+   * String representation of cells on the game board.
+   * For example: "XOIIXOXIO"
+   */
+  public String getGameBoard() {
+    return TicTacToeBoard.boardString(xMask, oMask);
+  }
+
+  public void setGameBoard(String gameBoard) {
+    checkMutable();
+    this.xMask = TicTacToeBoard.markMask(gameBoard, X_MARK);
+    this.oMask = TicTacToeBoard.markMask(gameBoard, O_MARK);
+  }
+
+  public String getGameStatus() {
+    return TicTacToeBoard.statusString(statusCode);
+  }
+
+  public void setGameStatus(String gameStatus) {
+    checkMutable();
+    this.statusCode = TicTacToeBoard.statusCode(gameStatus);
+  }
+
+  public int xMask() {
+    return xMask;
+  }
+
+  public int oMask() {
+    return oMask;
+  }
+
+  /**
+   * @return Mask of the cells that are not occupied by either mark
+   */
+  public int emptyMask() {
+    return ~(xMask | oMask) & TicTacToeBoard.FULL_MASK;
+  }
+
+  /**
+   * @return Base-3 index of the game board, as computed by TicTacToeBoard.index()
+   */
+  public int boardIndex() {
+    return TicTacToeBoard.index(xMask, oMask);
+  }
+
+  public int statusCode() {
+    return statusCode;
+  }
+
+  public boolean isInterned() {
+    return interned;
+  }
+
+  private void checkMutable() {
+    if (interned) {
+      throw new UnsupportedOperationException("Interned TicTacToeState can't be modified; create a new TicTacToeState instead");
+    }
+  }
+
+  /**
+   * @return This state if it is interned, or otherwise a new state with the same board and status
+   */
   @Override
   public TicTacToeState copy() {
-    return new TicTacToeState(gameBoard, gameStatus);
+    if (interned) {
+      return this;
+    }
+    return new TicTacToeState(xMask, oMask, statusCode);
   }
 
   @Override
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+/**
+ * Registry, built once, holding one interned TicTacToeState for each of the 5478 positions
+ * reachable in legal play (X moving first).  Environments hand out these shared instances
+ * instead of creating states on every step.  Interned states are immutable, so their copy()
+ * returns the state itself, and two interned states are equal only if they are the same
+ * instance.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public final class TicTacToeStateRegistry {
+  /**
+   * Interned state for each board index, or null where the position isn't reachable
+   */
+  private static final TicTacToeState[] STATES = new TicTacToeState[TicTacToeBoard.NUM_POSITIONS];
+
+  private static int numStates = 0;
+
+  static {
+    register(0, 0);
+  }
+
+  private TicTacToeStateRegistry() {
+  }
+
+  /**
+   * @return The interned state for the given board if it is reachable and the status is that
+   * of the board, or otherwise a new (mutable) state
+   */
+  public static TicTacToeState state(int xMask, int oMask, int statusCode) {
+    TicTacToeState state = STATES[TicTacToeBoard.index(xMask, oMask)];
+    if (state != null && state.statusCode() == statusCode) {
+      return state;
+    }
+    return new TicTacToeState(xMask, oMask, statusCode);
+  }
+
+  /**
+   * @return The interned state for the given board index, or null if the position isn't reachable
+   */
+  public static TicTacToeState interned(int boardIndex) {
+    return STATES[boardIndex];
+  }
+
+  /**
+   * @return Number of interned states
+   */
+  public static int size() {
+    return numStates;
+  }
+
+  /**
+   * Intern the given position and, if the game is in progress, every position reachable from it
+   */
+  private static void register(int xMask, int oMask) {
+    int index = TicTacToeBoard.index(xMask, oMask);
+    if (STATES[index] != null) {
+      return;
+    }
+    int status = TicTacToePositionTable.status(index);
+    STATES[index] = new TicTacToeState(xMask, oMask, status, true);
+    numStates++;
+
+    if (status == TicTacToeBoard.STATUS_IN_PROGRESS) {
+      boolean xToMove = Integer.bitCount(xMask) == Integer.bitCount(oMask);
+      for (int cells = TicTacToePositionTable.emptyMask(index); cells != 0; cells &= cells - 1) {
+        int cellBit = cells & -cells;
+        if (xToMove) {
+          register(xMask | cellBit, oMask);
+        }
+        else {
+          register(xMask, oMask | cellBit);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+/**
+ * Canonicalizes boards under the eight rotations and reflections of the square.
+ * A lookup table, computed once, gives the canonical (lowest) board index for every
+ * base-3 index, along with the transform that maps the board onto it, so that
+ * MoveAction cell ids can be mapped into and out of the canonical board.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public final class TicTacToeSymmetry {
+  public static final int NUM_TRANSFORMS = 8;
+
+  /**
+   * For each transform, the cell to which each cell moves: identity, rotations by
+   * 90, 180 and 270 degrees, then reflections across the vertical axis, the
+   * horizontal axis, the main diagonal and the anti-diagonal
+   */
+  private static final int[][] CELL_MAP = {
+      {0, 1, 2, 3, 4, 5, 6, 7, 8},
+      {2, 5, 8, 1, 4, 7, 0, 3, 6},
+      {8, 7, 6, 5, 4, 3, 2, 1, 0},
+      {6, 3, 0, 7, 4, 1, 8, 5, 2},
+      {2, 1, 0, 5, 4, 3, 8, 7, 6},
+      {6, 7, 8, 3, 4, 5, 0, 1, 2},
+      {0, 3, 6, 1, 4, 7, 2, 5, 8},
+      {8, 5, 2, 7, 4, 1, 6, 3, 0}
+  };
+
+  /**
+   * For each transform, the cell from which each cell came (the inverse of CELL_MAP)
+   */
+  private static final int[][] INVERSE_CELL_MAP = new int[NUM_TRANSFORMS][TicTacToeState.NUM_CELLS];
+
+  /**
+   * For each transform, the image of each of the 512 possible masks
+   */
+  private static final short[][] MASK_MAP = new short[NUM_TRANSFORMS][TicTacToeBoard.FULL_MASK + 1];
+
+  private static final int[] CANONICAL_INDEX = new int[TicTacToeBoard.NUM_POSITIONS];
+  private static final byte[] CANONICAL_TRANSFORM = new byte[TicTacToeBoard.NUM_POSITIONS];
+
+  static {
+    for (int t = 0; t < NUM_TRANSFORMS; t++) {
+      for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+        INVERSE_CELL_MAP[t][CELL_MAP[t][cell]] = cell;
+      }
+      for (int mask = 0; mask <= TicTacToeBoard.FULL_MASK; mask++) {
+        int image = 0;
+        for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+          if ((mask & (1 << cell)) != 0) {
+            image |= 1 << CELL_MAP[t][cell];
+          }
+        }
+        MASK_MAP[t][mask] = (short)image;
+      }
+    }
+
+    for (int index = 0; index < TicTacToeBoard.NUM_POSITIONS; index++) {
+      int xMask = TicTacToePositionTable.xMask(index);
+      int oMask = TicTacToePositionTable.oMask(index);
+      int canonicalIndex = index;
+      int canonicalTransform = 0;
+      for (int t = 1; t < NUM_TRANSFORMS; t++) {
+        int transformedIndex = TicTacToeBoard.index(MASK_MAP[t][xMask], MASK_MAP[t][oMask]);
+        if (transformedIndex < canonicalIndex) {
+          canonicalIndex = transformedIndex;
+          canonicalTransform = t;
+        }
+      }
+      CANONICAL_INDEX[index] = canonicalIndex;
+      CANONICAL_TRANSFORM[index] = (byte)canonicalTransform;
+    }
+  }
+
+  private TicTacToeSymmetry() {
+  }
+
+  /**
+   * @return Index of the canonical board among the rotations and reflections of the given board
+   */
+  public static int canonicalIndex(int boardIndex) {
+    return CANONICAL_INDEX[boardIndex];
+  }
+
+  /**
+   * @return The transform that maps the given board onto its canonical board
+   */
+  public static int canonicalTransform(int boardIndex) {
+    return CANONICAL_TRANSFORM[boardIndex];
+  }
+
+  /**
+   * Map a cell on a board to the corresponding cell on the transformed board
+   */
+  public static int mapCell(int transform, int cell) {
+    return CELL_MAP[transform][cell];
+  }
+
+  /**
+   * Map a cell on a transformed board back to the corresponding cell on the original board
+   */
+  public static int unmapCell(int transform, int cell) {
+    return INVERSE_CELL_MAP[transform][cell];
+  }
+
+  /**
+   * Map a mask of cells on a board to the corresponding mask on the transformed board
+   */
+  public static int mapMask(int transform, int cellMask) {
+    return MASK_MAP[transform][cellMask];
+  }
+
+  /**
+   * @return The canonical form of the given state
+   */
+  public static TicTacToeState canonicalState(TicTacToeState s) {
+    int t = canonicalTransform(s.boardIndex());
+    return TicTacToeStateRegistry.state(mapMask(t, s.xMask()), mapMask(t, s.oMask()), s.statusCode());
+  }
+}
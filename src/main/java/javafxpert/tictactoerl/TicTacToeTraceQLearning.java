@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.singleagent.Episode;
+import burlap.mdp.singleagent.environment.Environment;
+import burlap.mdp.singleagent.environment.EnvironmentOutcome;
+
+/**
+ * Dense Q-learner with eligibility traces, which passes each TD error back to every
+ * earlier move of the episode, decayed by gamma * lambda per move, so that the reward at
+ * the end of a game reaches the opening moves in a single episode.  By default it is
+ * Watkins's Q(lambda), which cuts the traces whenever an exploratory move is made, and
+ * when on-policy it is SARSA(lambda).
+ *
+ * The agent makes at most five moves in a game, so the traces are held in small
+ * preallocated arrays of (board, cell, eligibility) entries rather than in a trace for
+ * every slot of the Q-table.  Every move of a game is to a different board, so each
+ * entry is a replacing trace.
+ *
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeTraceQLearning extends TicTacToeDenseQLearning {
+  /**
+   * Most moves the agent can make in a game
+   */
+  private static final int MAX_TRACES = (TicTacToeState.NUM_CELLS + 1) / 2;
+
+  /**
+   * Decay of the traces, in addition to gamma, per move
+   */
+  protected double lambda;
+
+  /**
+   * Indicates whether targets use the value of the next move chosen (SARSA(lambda)) rather
+   * than of the greedy move (Watkins's Q(lambda))
+   */
+  protected boolean onPolicy = false;
+
+  private final int[] traceBoards = new int[MAX_TRACES];
+  private final int[] traceCells = new int[MAX_TRACES];
+  private final double[] traceEligibilities = new double[MAX_TRACES];
+  private int numTraces = 0;
+
+  public TicTacToeTraceQLearning(double gamma, double qInit, double learningRate, double lambda) {
+    this(new TicTacToeQTable(qInit), gamma, learningRate, lambda);
+  }
+
+  public TicTacToeTraceQLearning(TicTacToeQTable qTable, double gamma, double learningRate, double lambda) {
+    super(qTable, gamma, learningRate);
+    this.lambda = lambda;
+  }
+
+  public double getLambda() {
+    return lambda;
+  }
+
+  public void setLambda(double lambda) {
+    this.lambda = lambda;
+  }
+
+  public boolean isOnPolicy() {
+    return onPolicy;
+  }
+
+  /**
+   * Indicate whether to learn the value of the epsilon-greedy policy being followed
+   * (SARSA(lambda)) rather than of the greedy policy (Watkins's Q(lambda))
+   */
+  public void setOnPolicy(boolean onPolicy) {
+    this.onPolicy = onPolicy;
+  }
+
+  @Override
+  public Episode runLearningEpisode(Environment env, int maxSteps) {
+    TicTacToeState curState = (TicTacToeState)env.currentObservation();
+    Episode ea = new Episode(curState);
+    numTraces = 0;
+
+    int steps = 0;
+    int cell = env.isInTerminalState() ? -1 : epsilonGreedyCell(curState.boardIndex(), curState.emptyMask());
+    while (!env.isInTerminalState() && (steps < maxSteps || maxSteps == -1)) {
+      MoveAction action = MoveAction.forCell(cell);
+      EnvironmentOutcome eo = env.executeAction(action);
+      TicTacToeState nextState = (TicTacToeState)eo.op;
+      int nextBoardIndex = nextState.boardIndex();
+
+      // Choose the next move now, as SARSA(lambda) needs its value, and Q(lambda) needs to
+      // know whether it is greedy
+      int nextCell = -1;
+      double nextQ = 0.;
+      boolean greedy = true;
+      if (!eo.terminated) {
+        nextCell = epsilonGreedyCell(nextBoardIndex, nextState.emptyMask());
+        double maxQ = maxQValue(nextBoardIndex, nextState.emptyMask());
+        double chosenQ = qValue(nextBoardIndex, nextCell);
+        greedy = chosenQ == maxQ;
+        nextQ = onPolicy ? chosenQ : maxQ;
+      }
+
+      int boardIndex = curState.boardIndex();
+      double delta = eo.r + gamma * nextQ - qValue(boardIndex, cell);
+      addTrace(boardIndex, cell);
+      for (int i = 0; i < numTraces; i++) {
+        updateQValue(traceBoards[i], traceCells[i],
+            qValue(traceBoards[i], traceCells[i]) + delta * traceEligibilities[i]);
+        traceEligibilities[i] *= gamma * lambda;
+      }
+      if (!greedy && !onPolicy) {
+        numTraces = 0;
+      }
+
+      if (replayMemory != null) {
+        replayMemory.add(boardIndex, cell, eo.r, nextBoardIndex, eo.terminated);
+        replayBatch();
+      }
+
+      ea.transition(action, nextState, eo.r);
+      curState = nextState;
+      cell = nextCell;
+      steps++;
+    }
+
+    return ea;
+  }
+
+  /**
+   * Make the move just played fully eligible for updates
+   */
+  private void addTrace(int boardIndex, int cell) {
+    if (numTraces == MAX_TRACES) {
+      // Only possible in an environment whose games are longer; forget the oldest move
+      System.arraycopy(traceBoards, 1, traceBoards, 0, MAX_TRACES - 1);
+      System.arraycopy(traceCells, 1, traceCells, 0, MAX_TRACES - 1);
+      System.arraycopy(traceEligibilities, 1, traceEligibilities, 0, MAX_TRACES - 1);
+      numTraces--;
+    }
+    traceBoards[numTraces] = boardIndex;
+    traceCells[numTraces] = cell;
+    traceEligibilities[numTraces] = 1.;
+    numTraces++;
+  }
+}
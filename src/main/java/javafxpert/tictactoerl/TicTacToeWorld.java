@@ -151,15 +151,15 @@ public class TicTacToeWorld implements DomainGenerator {
     Visualizer v = gen.getVisualizer();
     VisualExplorer exp = new VisualExplorer(domain, env, v);
 
-    exp.addKeyAction("0", new MoveAction(0));
-    exp.addKeyAction("1", new MoveAction(1));
-    exp.addKeyAction("2", new MoveAction(2));
-    exp.addKeyAction("3", new MoveAction(3));
-    exp.addKeyAction("4", new MoveAction(4));
-    exp.addKeyAction("5", new MoveAction(5));
-    exp.addKeyAction("6", new MoveAction(6));
-    exp.addKeyAction("7", new MoveAction(7));
-    exp.addKeyAction("8", new MoveAction(8));
+    exp.addKeyAction("0", MoveAction.forCell(0));
+    exp.addKeyAction("1", MoveAction.forCell(1));
+    exp.addKeyAction("2", MoveAction.forCell(2));
+    exp.addKeyAction("3", MoveAction.forCell(3));
+    exp.addKeyAction("4", MoveAction.forCell(4));
+    exp.addKeyAction("5", MoveAction.forCell(5));
+    exp.addKeyAction("6", MoveAction.forCell(6));
+    exp.addKeyAction("7", MoveAction.forCell(7));
+    exp.addKeyAction("8", MoveAction.forCell(8));
 
     exp.initGUI();
   }
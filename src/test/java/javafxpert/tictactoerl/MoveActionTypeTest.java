@@ -0,0 +1,60 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class MoveActionTypeTest {
+  private final MoveActionType actionType = new MoveActionType();
+
+  @Test
+  public void actionNamesRoundTrip() {
+    for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+      MoveAction action = MoveAction.forCell(cell);
+      assertSame(action, actionType.associatedAction(action.actionName()));
+    }
+  }
+
+  @Test
+  public void malformedNamesAreRejected() {
+    for (String name : new String[] {"moveAction9", "moveAction12", "moveAction-1", "moveAction", "move4",
+        "MoveAction4", "moveActionX", ""}) {
+      try {
+        actionType.associatedAction(name);
+        fail("Accepted " + name);
+      }
+      catch (IllegalArgumentException e) {
+        assertTrue(e.getMessage(), e.getMessage().endsWith(": " + name));
+      }
+    }
+  }
+
+  @Test
+  public void applicableActionsAreTheEmptyCells() {
+    TicTacToeState state = TicTacToeStateRegistry.state(0x011, 0x002, TicTacToeBoard.STATUS_IN_PROGRESS);
+    assertEquals(6, actionType.allApplicableActions(state).size());
+    TicTacToeState finished = TicTacToeStateRegistry.state(0x007, 0x018, TicTacToeBoard.STATUS_X_WON);
+    assertTrue(actionType.allApplicableActions(finished).isEmpty());
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeBoardTest {
+  /**
+   * The eight three-in-a-row lines, as cells
+   */
+  private static final int[][] LINES = {
+      {0, 1, 2}, {3, 4, 5}, {6, 7, 8},
+      {0, 3, 6}, {1, 4, 7}, {2, 5, 8},
+      {0, 4, 8}, {2, 4, 6}
+  };
+
+  @Test
+  public void hasLineMatchesEveryMaskAgainstTheLines() {
+    for (int mask = 0; mask <= TicTacToeBoard.FULL_MASK; mask++) {
+      assertEquals("mask " + Integer.toBinaryString(mask), containsLine(mask), TicTacToeBoard.hasLine(mask));
+    }
+  }
+
+  @Test
+  public void indexIsTheBase3ValueOfTheBoardString() {
+    for (int xMask = 0; xMask <= TicTacToeBoard.FULL_MASK; xMask++) {
+      for (int oMask = 0; oMask <= TicTacToeBoard.FULL_MASK; oMask++) {
+        if ((xMask & oMask) == 0) {
+          String board = TicTacToeBoard.boardString(xMask, oMask);
+          int expected = 0;
+          for (int cell = TicTacToeState.NUM_CELLS - 1; cell >= 0; cell--) {
+            char mark = board.charAt(cell);
+            expected = expected * 3 + (mark == TicTacToeState.X_MARK ? 1 : mark == TicTacToeState.O_MARK ? 2 : 0);
+          }
+          assertEquals(board, expected, TicTacToeBoard.index(xMask, oMask));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void markMaskInvertsBoardString() {
+    for (int xMask = 0; xMask <= TicTacToeBoard.FULL_MASK; xMask++) {
+      int oMask = ~xMask & TicTacToeBoard.FULL_MASK & 0x0AA;
+      String board = TicTacToeBoard.boardString(xMask, oMask);
+      assertEquals(board, xMask, TicTacToeBoard.markMask(board, TicTacToeState.X_MARK));
+      assertEquals(board, oMask, TicTacToeBoard.markMask(board, TicTacToeState.O_MARK));
+    }
+  }
+
+  @Test
+  public void evalStatusOfSampleBoards() {
+    assertStatus(TicTacToeBoard.STATUS_IN_PROGRESS, "IIIIIIIII");
+    assertStatus(TicTacToeBoard.STATUS_IN_PROGRESS, "XOIIXOIII");
+    assertStatus(TicTacToeBoard.STATUS_X_WON, "XXXOOIIII");
+    assertStatus(TicTacToeBoard.STATUS_X_WON, "XOIOXIIIX");
+    assertStatus(TicTacToeBoard.STATUS_O_WON, "XXOXOIOII");
+    assertStatus(TicTacToeBoard.STATUS_O_WON, "OXXOXIOII");
+    assertStatus(TicTacToeBoard.STATUS_CATS_GAME, "XOXXOOOXX");
+
+    // A full board with a line is a win, not a cat's game
+    assertStatus(TicTacToeBoard.STATUS_X_WON, "XXXOOXOXO");
+  }
+
+  @Test
+  public void lineCompletingCellCompletesALine() {
+    for (int markMask = 0; markMask <= TicTacToeBoard.FULL_MASK; markMask++) {
+      for (int emptyMask = ~markMask & TicTacToeBoard.FULL_MASK; ; emptyMask = (emptyMask - 1) & ~markMask & TicTacToeBoard.FULL_MASK) {
+        int cell = TicTacToeBoard.lineCompletingCell(markMask, emptyMask);
+        boolean completable = false;
+        for (int cells = emptyMask; cells != 0; cells &= cells - 1) {
+          int candidate = Integer.numberOfTrailingZeros(cells);
+          completable |= completesLine(markMask, candidate);
+        }
+        if (cell == -1) {
+          assertFalse(completable);
+        }
+        else {
+          assertTrue((emptyMask & (1 << cell)) != 0);
+          assertTrue(completesLine(markMask, cell));
+        }
+        if (emptyMask == 0) {
+          break;
+        }
+      }
+    }
+  }
+
+  @Test
+  public void selectCellReturnsTheNthSetBit() {
+    int cellMask = 0x1A5;
+    int[] cells = {0, 2, 5, 7, 8};
+    for (int n = 0; n < cells.length; n++) {
+      assertEquals(cells[n], TicTacToeBoard.selectCell(cellMask, n));
+    }
+  }
+
+  @Test
+  public void statusStringsAndCodesRoundTrip() {
+    for (int status = TicTacToeBoard.STATUS_IN_PROGRESS; status <= TicTacToeBoard.STATUS_CATS_GAME; status++) {
+      assertEquals(status, TicTacToeBoard.statusCode(TicTacToeBoard.statusString(status)));
+    }
+  }
+
+  private static void assertStatus(int expected, String board) {
+    assertEquals(board, expected, TicTacToeBoard.evalStatus(
+        TicTacToeBoard.markMask(board, TicTacToeState.X_MARK), TicTacToeBoard.markMask(board, TicTacToeState.O_MARK)));
+  }
+
+  /**
+   * @return Whether one of the lines is fully in the mask, checked cell by cell
+   */
+  private static boolean containsLine(int mask) {
+    for (int[] line : LINES) {
+      boolean complete = true;
+      for (int cell : line) {
+        complete &= (mask & (1 << cell)) != 0;
+      }
+      if (complete) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return Whether adding the cell to the marks completes a line that wasn't complete before
+   */
+  private static boolean completesLine(int markMask, int cell) {
+    for (int[] line : LINES) {
+      int inLine = 0;
+      boolean hasCell = false;
+      for (int lineCell : line) {
+        if ((markMask & (1 << lineCell)) != 0) {
+          inLine++;
+        }
+        hasCell |= lineCell == cell;
+      }
+      if (hasCell && inLine == 2) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.behavior.singleagent.Episode;
+import burlap.mdp.singleagent.environment.EnvironmentOutcome;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeEpisodeStoreTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void episodesRoundTripForBothMarksWithIllegalMoves() throws IOException {
+    Random rand = new Random(7);
+    TicTacToeEnv env = new TicTacToeEnv(OpponentStrategies.WIN_OR_BLOCK_OR_RANDOM, new Random(11));
+    List<Episode> episodes = new ArrayList<>();
+    for (int i = 0; i < 400; i++) {
+      env.setEnvPlayerMark(i % 2 == 0 ? TicTacToeState.O_MARK : TicTacToeState.X_MARK);
+      episodes.add(playEpisode(env, rand));
+    }
+
+    String basePath = new File(folder.getRoot(), "episodes").getPath();
+    try (TicTacToeEpisodeStore.Writer writer = TicTacToeEpisodeStore.create(basePath)) {
+      writer.append(episodes.subList(0, 100));
+      for (Episode episode : episodes.subList(100, episodes.size())) {
+        writer.write(episode);
+      }
+    }
+
+    try (TicTacToeEpisodeStore.Reader reader = TicTacToeEpisodeStore.open(basePath)) {
+      assertEquals(episodes.size(), reader.size());
+      for (int episodeNum = 0; episodeNum < episodes.size(); episodeNum++) {
+        Episode expected = episodes.get(episodeNum);
+        Episode actual = reader.episode(episodeNum);
+        assertEpisodeEquals("episode " + episodeNum, expected, actual);
+
+        TicTacToeState finalState = (TicTacToeState)expected.stateSequence.get(expected.stateSequence.size() - 1);
+        assertEquals(finalState.statusCode(), reader.outcome(episodeNum));
+      }
+      assertEpisodeEquals("episode view", episodes.get(42), reader.episodes().get(42));
+    }
+  }
+
+  /**
+   * Play a game with random moves, one in five of which is into a cell that may be occupied
+   */
+  private static Episode playEpisode(TicTacToeEnv env, Random rand) {
+    Episode episode = new Episode(env.currentObservation());
+    while (!env.isInTerminalState()) {
+      TicTacToeState state = (TicTacToeState)env.currentObservation();
+      int cell = rand.nextInt(5) == 0 ? rand.nextInt(TicTacToeState.NUM_CELLS) :
+          TicTacToeBoard.selectCell(state.emptyMask(), rand.nextInt(Integer.bitCount(state.emptyMask())));
+      EnvironmentOutcome eo = env.executeAction(MoveAction.forCell(cell));
+      episode.transition(eo.a, eo.op, eo.r);
+    }
+    env.resetEnvironment();
+    return episode;
+  }
+
+  private static void assertEpisodeEquals(String message, Episode expected, Episode actual) {
+    assertEquals(message, expected.numActions(), actual.numActions());
+    for (int t = 0; t < expected.stateSequence.size(); t++) {
+      TicTacToeState expectedState = (TicTacToeState)expected.stateSequence.get(t);
+      TicTacToeState actualState = (TicTacToeState)actual.stateSequence.get(t);
+      assertEquals(message + ", state " + t, expectedState.toString(), actualState.toString());
+      assertEquals(message + ", state " + t, expectedState.statusCode(), actualState.statusCode());
+    }
+    for (int t = 0; t < expected.numActions(); t++) {
+      assertEquals(message + ", action " + t, ((MoveAction)expected.action(t)).getActionId(),
+          ((MoveAction)actual.action(t)).getActionId());
+      assertEquals(message + ", reward " + t, expected.rewardSequence.get(t), actual.rewardSequence.get(t), 0.);
+    }
+  }
+}
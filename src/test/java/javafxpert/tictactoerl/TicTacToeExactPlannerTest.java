@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.mdp.singleagent.environment.EnvironmentOutcome;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeExactPlannerTest {
+  private static final double GAMMA = 0.90;
+
+  @Test
+  public void valuesAgainstAPerfectOpponentMatchTheMinimaxOutcome() {
+    TicTacToeExactPlanner planner = new TicTacToeExactPlanner(OpponentStrategies.PERFECT, GAMMA);
+    planner.solve();
+
+    for (int index = 0; index < TicTacToeBoard.NUM_POSITIONS; index++) {
+      TicTacToeState state = TicTacToeStateRegistry.interned(index);
+      if (state == null || state.statusCode() != TicTacToeBoard.STATUS_IN_PROGRESS) {
+        continue;
+      }
+      char agentMark = Integer.bitCount(state.xMask()) == Integer.bitCount(state.oMask()) ?
+          TicTacToeState.X_MARK : TicTacToeState.O_MARK;
+
+      // Against a perfect opponent the agent's best is the minimax outcome: a win is worth
+      // more than zero, a draw costs less than five moves, and a loss costs at least 10 * 0.9^3
+      int minimaxValue = TicTacToeMinimaxTable.value(index, agentMark);
+      double value = planner.value(index);
+      if (minimaxValue > 0) {
+        assertTrue(state + ": " + value, value > 0.);
+      }
+      else if (minimaxValue == 0) {
+        assertTrue(state + ": " + value, value < 0. && value > -5.);
+      }
+      else {
+        assertTrue(state + ": " + value, value < -7.);
+      }
+    }
+
+    // A draw as X is five moves that each cost one
+    assertEquals(-(1 + 0.9 + 0.81 + 0.729 + 0.6561), planner.value(0), 1e-9);
+  }
+
+  @Test
+  public void valueOfTheEmptyBoardIsTheExpectedReturnInTheEnvironment() {
+    ExactOpponentStrategy opponentStrategy = OpponentStrategies.WIN_OR_BLOCK_OR_RANDOM;
+    TicTacToeExactPlanner planner = new TicTacToeExactPlanner(opponentStrategy, GAMMA);
+    TicTacToeFrozenPolicy policy = TicTacToeFrozenPolicy.compile(new TicTacToeDenseQLearning(planner.solve(), GAMMA, 0.));
+
+    TicTacToeEnv env = new TicTacToeEnv(opponentStrategy, new Random(19));
+    env.setEnvPlayerMark(TicTacToeState.O_MARK);
+    int numGames = 20000;
+    double totalReturn = 0.;
+    for (int i = 0; i < numGames; i++) {
+      double discount = 1.;
+      while (!env.isInTerminalState()) {
+        EnvironmentOutcome eo = env.executeAction(policy.action(env.currentObservation()));
+        totalReturn += discount * eo.r;
+        discount *= GAMMA;
+      }
+      env.resetEnvironment();
+    }
+    assertEquals(planner.value(0), totalReturn / numGames, 0.15);
+  }
+
+  @Test
+  public void qValuesOfTheBestCellsAreTheBoardValues() {
+    TicTacToeExactPlanner planner = new TicTacToeExactPlanner(OpponentStrategies.RANDOM, GAMMA);
+    TicTacToeQTable qTable = planner.solve();
+    for (int index = 0; index < TicTacToeBoard.NUM_POSITIONS; index++) {
+      TicTacToeState state = TicTacToeStateRegistry.interned(index);
+      if (state != null && state.statusCode() == TicTacToeBoard.STATUS_IN_PROGRESS) {
+        assertEquals(state.toString(), planner.value(index), qTable.maxQValue(index, state.emptyMask()), 1e-12);
+      }
+    }
+  }
+}
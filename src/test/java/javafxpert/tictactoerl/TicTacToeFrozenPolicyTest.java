@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import burlap.mdp.singleagent.environment.EnvironmentOutcome;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeFrozenPolicyTest {
+  private static TicTacToeQTable qTable;
+  private static TicTacToeFrozenPolicy policy;
+
+  @BeforeClass
+  public static void compilePolicy() {
+    qTable = new TicTacToeExactPlanner(OpponentStrategies.PERFECT, 0.90).solve();
+    policy = TicTacToeFrozenPolicy.compile(new TicTacToeDenseQLearning(qTable, 0.90, 0.));
+  }
+
+  @Test
+  public void bestCellHasTheHighestQValue() {
+    for (int index = 0; index < TicTacToeBoard.NUM_POSITIONS; index++) {
+      TicTacToeState state = TicTacToeStateRegistry.interned(index);
+      if (state != null && state.statusCode() == TicTacToeBoard.STATUS_IN_PROGRESS) {
+        int bestCell = policy.bestCell(index);
+        assertTrue((state.emptyMask() & (1 << bestCell)) != 0);
+        assertEquals(qTable.maxQValue(index, state.emptyMask()), qTable.qValue(index, bestCell), 0.);
+        assertEquals(bestCell, policy.bestCell(state.xMask(), state.oMask()));
+        assertEquals(bestCell, ((MoveAction)policy.action(state)).getActionId());
+        assertEquals(1., policy.actionProb(state, MoveAction.forCell(bestCell)), 0.);
+        assertTrue(policy.definedFor(state));
+      }
+    }
+  }
+
+  @Test
+  public void noMoveOnFinishedOrUnreachableBoards() {
+    for (String board : new String[] {"XXXOOIIII", "XOXXOOOXX", "XXIIIIIII", "XIIOOIIII"}) {
+      TicTacToeState state = state(board);
+      assertEquals(board, -1, policy.bestCell(state.boardIndex()));
+      assertNull(board, policy.action(state));
+      assertFalse(board, policy.definedFor(state));
+      assertEquals(board, 0., policy.actionProb(state, MoveAction.forCell(5)), 0.);
+    }
+  }
+
+  @Test
+  public void illegalHumanMoveDoesNotLetThePolicyMoveAgain() {
+    TicTacToePlayerEnv env = new TicTacToePlayerEnv(policy);
+    EnvironmentOutcome eo = env.executeAction(MoveAction.forCell(0));
+    assertEquals("XIIIIIIII", ((TicTacToeState)eo.op).getGameBoard());
+    assertFalse(eo.terminated);
+    assertEquals(1, env.getMetrics().getIllegalMoves());
+
+    eo = env.executeAction(MoveAction.forCell(4));
+    TicTacToeState state = (TicTacToeState)eo.op;
+    assertEquals(2, Integer.bitCount(state.xMask()));
+    assertEquals(1 << 4, state.oMask());
+    assertEquals(1, env.getMetrics().getIllegalMoves());
+  }
+
+  @Test
+  public void unreachableBoardFallsBackToARandomEmptyCell() {
+    TicTacToePlayerEnv env = new TicTacToePlayerEnv(policy);
+    EnvironmentOutcome eo = env.executeActionWithGameBoard(MoveAction.forCell(8), "XIIOOIIII");
+    TicTacToeState state = (TicTacToeState)eo.op;
+    assertEquals(TicTacToeBoard.markMask("XIIOOIIIO", TicTacToeState.O_MARK), state.oMask());
+    assertEquals(2, Integer.bitCount(state.xMask()));
+    assertEquals(0, state.xMask() & state.oMask());
+    assertEquals(1, env.getMetrics().getIllegalMoves());
+  }
+
+  @Test
+  public void winningPolicyMoveEndsTheGame() {
+    TicTacToePlayerEnv env = new TicTacToePlayerEnv(policy);
+    EnvironmentOutcome eo = env.executeActionWithGameBoard(MoveAction.forCell(8), "XXIOIIIII");
+    assertEquals("XXXOIIIIO", ((TicTacToeState)eo.op).getGameBoard());
+    assertTrue(eo.terminated);
+    assertEquals(10., eo.r, 0.);
+    assertEquals(1, env.getMetrics().getWins());
+  }
+
+  private static TicTacToeState state(String board) {
+    int xMask = TicTacToeBoard.markMask(board, TicTacToeState.X_MARK);
+    int oMask = TicTacToeBoard.markMask(board, TicTacToeState.O_MARK);
+    return TicTacToeStateRegistry.state(xMask, oMask, TicTacToeBoard.evalStatus(xMask, oMask));
+  }
+}
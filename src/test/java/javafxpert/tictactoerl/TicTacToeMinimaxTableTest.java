@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeMinimaxTableTest {
+  @Test
+  public void emptyBoardIsADrawFromEveryCell() {
+    assertEquals(0, TicTacToeMinimaxTable.value(0, TicTacToeState.X_MARK));
+    assertEquals(TicTacToeBoard.FULL_MASK, TicTacToeMinimaxTable.optimalCells(0, TicTacToeState.X_MARK));
+  }
+
+  @Test
+  public void onlyTheCenterDrawsAgainstACornerOpening() {
+    int index = index("XIIIIIIII");
+    assertEquals(0, TicTacToeMinimaxTable.value(index, TicTacToeState.O_MARK));
+    assertEquals(1 << 4, TicTacToeMinimaxTable.optimalCells(index, TicTacToeState.O_MARK));
+  }
+
+  @Test
+  public void immediateWinIsPreferredAndValuedByTheCellsLeft() {
+    int index = index("XXIOOIIII");
+    assertEquals(5, TicTacToeMinimaxTable.value(index, TicTacToeState.X_MARK));
+    assertEquals(1 << 2, TicTacToeMinimaxTable.optimalCells(index, TicTacToeState.X_MARK));
+  }
+
+  @Test
+  public void forcedBlock() {
+    int index = index("XXIIOIIII");
+    assertEquals(1 << 2, TicTacToeMinimaxTable.optimalCells(index, TicTacToeState.O_MARK));
+  }
+
+  @Test
+  public void finishedGamesHaveNoOptimalCells() {
+    int index = index("XXXOOIIII");
+    assertEquals(0, TicTacToeMinimaxTable.optimalCells(index, TicTacToeState.O_MARK));
+    assertEquals(0, TicTacToeMinimaxTable.value(index, TicTacToeState.O_MARK));
+  }
+
+  @Test
+  public void perfectOpponentNeverLoses() {
+    Random rand = new Random(13);
+    TicTacToeEnv env = new TicTacToeEnv(OpponentStrategies.PERFECT, new Random(17));
+    for (char envPlayerMark : new char[] {TicTacToeState.O_MARK, TicTacToeState.X_MARK}) {
+      env.setEnvPlayerMark(envPlayerMark);
+      for (int i = 0; i < 1000; i++) {
+        while (!env.isInTerminalState()) {
+          TicTacToeState state = (TicTacToeState)env.currentObservation();
+          env.executeAction(MoveAction.forCell(
+              TicTacToeBoard.selectCell(state.emptyMask(), rand.nextInt(Integer.bitCount(state.emptyMask())))));
+        }
+        env.resetEnvironment();
+      }
+    }
+    assertEquals(2000, env.getMetrics().getGames());
+    assertEquals(0, env.getMetrics().getWins());
+  }
+
+  private static int index(String board) {
+    return TicTacToeBoard.index(TicTacToeBoard.markMask(board, TicTacToeState.X_MARK),
+        TicTacToeBoard.markMask(board, TicTacToeState.O_MARK));
+  }
+}
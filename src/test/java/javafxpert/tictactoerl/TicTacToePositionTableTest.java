@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToePositionTableTest {
+  @Test
+  public void tableMatchesTheBoardForEveryPosition() {
+    for (int xMask = 0; xMask <= TicTacToeBoard.FULL_MASK; xMask++) {
+      for (int oMask = 0; oMask <= TicTacToeBoard.FULL_MASK; oMask++) {
+        if ((xMask & oMask) != 0) {
+          continue;
+        }
+        int index = TicTacToeBoard.index(xMask, oMask);
+        int emptyMask = ~(xMask | oMask) & TicTacToeBoard.FULL_MASK;
+        assertEquals(xMask, TicTacToePositionTable.xMask(index));
+        assertEquals(oMask, TicTacToePositionTable.oMask(index));
+        assertEquals(emptyMask, TicTacToePositionTable.emptyMask(index));
+        assertEquals(TicTacToeBoard.evalStatus(xMask, oMask), TicTacToePositionTable.status(index));
+        assertEquals(TicTacToeBoard.lineCompletingCell(xMask, emptyMask),
+            TicTacToePositionTable.winningCell(index, TicTacToeState.X_MARK));
+        assertEquals(TicTacToeBoard.lineCompletingCell(oMask, emptyMask),
+            TicTacToePositionTable.winningCell(index, TicTacToeState.O_MARK));
+      }
+    }
+  }
+
+  @Test
+  public void blockingCellIsTheOtherMarksWinningCell() {
+    for (int index = 0; index < TicTacToeBoard.NUM_POSITIONS; index++) {
+      assertEquals(TicTacToePositionTable.winningCell(index, TicTacToeState.O_MARK),
+          TicTacToePositionTable.blockingCell(index, TicTacToeState.X_MARK));
+      assertEquals(TicTacToePositionTable.winningCell(index, TicTacToeState.X_MARK),
+          TicTacToePositionTable.blockingCell(index, TicTacToeState.O_MARK));
+    }
+  }
+
+  @Test
+  public void winningCellWinsTheGame() {
+    for (int index = 0; index < TicTacToeBoard.NUM_POSITIONS; index++) {
+      if (TicTacToePositionTable.status(index) != TicTacToeBoard.STATUS_IN_PROGRESS) {
+        continue;
+      }
+      int xMask = TicTacToePositionTable.xMask(index);
+      int oMask = TicTacToePositionTable.oMask(index);
+      int xCell = TicTacToePositionTable.winningCell(index, TicTacToeState.X_MARK);
+      if (xCell != -1) {
+        assertEquals(TicTacToeBoard.STATUS_X_WON, TicTacToeBoard.evalStatus(xMask | 1 << xCell, oMask));
+      }
+      int oCell = TicTacToePositionTable.winningCell(index, TicTacToeState.O_MARK);
+      if (oCell != -1) {
+        assertEquals(TicTacToeBoard.STATUS_O_WON, TicTacToeBoard.evalStatus(xMask, oMask | 1 << oCell));
+      }
+    }
+  }
+
+  @Test
+  public void sampleWinningAndBlockingCells() {
+    int index = index("XXIOOIIII");
+    assertEquals(2, TicTacToePositionTable.winningCell(index, TicTacToeState.X_MARK));
+    assertEquals(5, TicTacToePositionTable.winningCell(index, TicTacToeState.O_MARK));
+    assertEquals(5, TicTacToePositionTable.blockingCell(index, TicTacToeState.X_MARK));
+
+    index = index("XOIIIIIII");
+    assertEquals(-1, TicTacToePositionTable.winningCell(index, TicTacToeState.X_MARK));
+    assertEquals(-1, TicTacToePositionTable.winningCell(index, TicTacToeState.O_MARK));
+    assertTrue(TicTacToePositionTable.status(index) == TicTacToeBoard.STATUS_IN_PROGRESS);
+  }
+
+  private static int index(String board) {
+    return TicTacToeBoard.index(TicTacToeBoard.markMask(board, TicTacToeState.X_MARK),
+        TicTacToeBoard.markMask(board, TicTacToeState.O_MARK));
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeQTableSnapshotTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void loadAndMapReturnTheSavedQValues() throws IOException {
+    TicTacToeQTable qTable = randomQTable(new Random(3));
+    String path = snapshotPath();
+    TicTacToeQTableSnapshot.save(qTable, true, path);
+
+    TicTacToeQTableSnapshot loaded = TicTacToeQTableSnapshot.load(path);
+    TicTacToeQTableSnapshot mapped = TicTacToeQTableSnapshot.map(path);
+    assertTrue(loaded.isUseSymmetry());
+    assertTrue(mapped.isUseSymmetry());
+    for (int boardIndex = 0; boardIndex < TicTacToeBoard.NUM_POSITIONS; boardIndex++) {
+      boolean reachable = TicTacToeStateRegistry.interned(boardIndex) != null;
+      for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+        double expected = reachable ? qTable.qValue(boardIndex, cell) : 0.;
+        assertEquals(expected, loaded.getQTable().qValue(boardIndex, cell), 0.);
+        assertEquals(expected, mapped.getQTable().qValue(boardIndex, cell), 0.);
+      }
+    }
+  }
+
+  @Test
+  public void learnerSavesWithItsSymmetryMode() throws IOException {
+    TicTacToeDenseQLearning learner = new TicTacToeDenseQLearning(randomQTable(new Random(5)), 0.90, 1.0);
+    String path = snapshotPath();
+    TicTacToeQTableSnapshot.save(learner, path);
+
+    TicTacToeDenseQLearning loaded = TicTacToeQTableSnapshot.load(path).createLearner(0.90, 1.0);
+    assertFalse(loaded.isUseSymmetry());
+    TicTacToeState state = TicTacToeStateRegistry.state(1, 2, TicTacToeBoard.STATUS_IN_PROGRESS);
+    assertEquals(learner.qValue(state, MoveAction.forCell(4)), loaded.qValue(state, MoveAction.forCell(4)), 0.);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void mappedTableIsReadOnly() throws IOException {
+    String path = snapshotPath();
+    TicTacToeQTableSnapshot.save(new TicTacToeQTable(0.), false, path);
+    TicTacToeQTableSnapshot.map(path).getQTable().setQValue(0, 0, 1.);
+  }
+
+  @Test
+  public void corruptedQValuesAreRejected() throws IOException {
+    String path = snapshotPath();
+    TicTacToeQTableSnapshot.save(randomQTable(new Random(9)), false, path);
+    flipByte(path, new File(path).length() / 2);
+
+    assertRejected(path, "checksum");
+  }
+
+  @Test
+  public void otherVersionsAreRejected() throws IOException {
+    String path = snapshotPath();
+    TicTacToeQTableSnapshot.save(randomQTable(new Random(9)), false, path);
+    flipByte(path, 5);
+
+    assertRejected(path, "version");
+  }
+
+  @Test
+  public void otherFilesAreRejected() throws IOException {
+    String path = snapshotPath();
+    TicTacToeQTableSnapshot.save(randomQTable(new Random(9)), false, path);
+    flipByte(path, 0);
+    assertRejected(path, "Not a Q-table snapshot");
+
+    try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+      file.seek(0);
+      file.writeInt(0x54545451);
+      file.setLength(file.length() - Double.BYTES);
+    }
+    assertRejected(path, "wrong size");
+  }
+
+  private String snapshotPath() throws IOException {
+    return new File(folder.newFolder(), "q" + TicTacToeQTableSnapshot.FILE_EXTENSION).getPath();
+  }
+
+  private static TicTacToeQTable randomQTable(Random rand) {
+    TicTacToeQTable qTable = new TicTacToeQTable(0.);
+    for (int boardIndex = 0; boardIndex < TicTacToeBoard.NUM_POSITIONS; boardIndex++) {
+      for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+        qTable.setQValue(boardIndex, cell, rand.nextGaussian());
+      }
+    }
+    return qTable;
+  }
+
+  private static void flipByte(String path, long position) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+      file.seek(position);
+      int b = file.read();
+      file.seek(position);
+      file.write(b ^ 0xFF);
+    }
+  }
+
+  /**
+   * Check that both load() and map() reject the file, with the given text in the message
+   */
+  private static void assertRejected(String path, String messageText) {
+    try {
+      TicTacToeQTableSnapshot.load(path);
+      fail("load() accepted " + path);
+    }
+    catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains(messageText));
+    }
+    try {
+      TicTacToeQTableSnapshot.map(path);
+      fail("map() accepted " + path);
+    }
+    catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains(messageText));
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeReplayMemoryTest {
+  @Test
+  public void oldestTransitionIsOverwrittenWhenFull() {
+    TicTacToeReplayMemory memory = new TicTacToeReplayMemory(3);
+    for (int i = 0; i < 4; i++) {
+      memory.add(i, i, -i, i + 1, i == 3);
+    }
+    assertEquals(3, memory.size());
+    assertEquals(3, memory.boardIndex(0));
+    assertEquals(3, memory.cell(0));
+    assertEquals(-3., memory.reward(0), 0.);
+    assertEquals(4, memory.nextBoardIndex(0));
+    assertTrue(memory.isTerminal(0));
+    assertFalse(memory.isTerminal(1));
+  }
+
+  @Test
+  public void uniformSamplingHasUnitWeights() {
+    TicTacToeReplayMemory memory = new TicTacToeReplayMemory(4);
+    memory.add(0, 0, 0., 0, false);
+    memory.add(1, 1, 0., 1, false);
+    memory.updatePriority(0, 5.);
+    assertFalse(memory.isPrioritized());
+    assertEquals(1., memory.importanceWeight(0), 0.);
+    assertEquals(1., memory.importanceWeight(1), 0.);
+  }
+
+  @Test
+  public void samplesInProportionToPriority() {
+    TicTacToeReplayMemory memory = new TicTacToeReplayMemory(3, 1.);
+    for (int i = 0; i < 3; i++) {
+      memory.add(i, 0, 0., 0, false);
+    }
+    memory.updatePriority(0, 1.);
+    memory.updatePriority(1, 3.);
+    memory.updatePriority(2, 0.);
+
+    Random rand = new Random(23);
+    int[] counts = new int[3];
+    int numSamples = 100000;
+    for (int i = 0; i < numSamples; i++) {
+      counts[memory.sample(rand)]++;
+    }
+    double total = 1.001 + 3.001 + 0.001;
+    assertEquals(1.001 / total, (double)counts[0] / numSamples, 0.01);
+    assertEquals(3.001 / total, (double)counts[1] / numSamples, 0.01);
+    assertTrue(counts[2] < numSamples / 100);
+  }
+
+  @Test
+  public void importanceWeightsAreNormalizedByTheLowestPriority() {
+    TicTacToeReplayMemory memory = new TicTacToeReplayMemory(4, 1., 1.);
+    memory.add(0, 0, 0., 0, false);
+    memory.add(1, 0, 0., 0, false);
+    memory.updatePriority(0, 1.);
+    memory.updatePriority(1, 3.);
+
+    // (N * P(i))^-beta over its maximum is the lowest priority over the transition's
+    assertEquals(1., memory.importanceWeight(0), 1e-12);
+    assertEquals(1.001 / 3.001, memory.importanceWeight(1), 1e-12);
+
+    memory.setImportanceExponent(0.5);
+    assertEquals(Math.sqrt(1.001 / 3.001), memory.importanceWeight(1), 1e-12);
+
+    memory.clear();
+    assertEquals(0, memory.size());
+    memory.add(2, 0, 0., 0, false);
+    assertEquals(1., memory.importanceWeight(0), 1e-12);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeRetrogradeSolverTest {
+  @Test
+  public void agreesWithTheMinimaxTableOnEveryReachableBoard() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      TicTacToeRetrogradeSolver solver = new TicTacToeRetrogradeSolver(3, 3, 3, pool);
+      solver.solve();
+
+      int numCompared = 0;
+      for (int index = 0; index < TicTacToeBoard.NUM_POSITIONS; index++) {
+        TicTacToeState state = TicTacToeStateRegistry.interned(index);
+        if (state != null && state.statusCode() == TicTacToeBoard.STATUS_IN_PROGRESS) {
+          char toMove = Integer.bitCount(state.xMask()) == Integer.bitCount(state.oMask()) ?
+              TicTacToeState.X_MARK : TicTacToeState.O_MARK;
+          assertEquals(state.toString(), TicTacToeMinimaxTable.value(index, toMove), solver.value(index));
+          assertEquals(index, solver.index(state.xMask(), state.oMask()));
+          numCompared++;
+        }
+      }
+      assertEquals(4520, numCompared);
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void smallBoards() {
+    // With k = 2 on a 2x2 board every pair of cells is a line, so X wins with its second mark
+    TicTacToeRetrogradeSolver solver = new TicTacToeRetrogradeSolver(2, 2, 2);
+    solver.solve();
+    assertEquals(2, solver.value(0, 0));
+
+    // X gets two of the three cells, which can't make a line of three
+    solver = new TicTacToeRetrogradeSolver(1, 3, 3);
+    solver.solve();
+    assertEquals(0, solver.value(0, 0));
+
+    // The first mark wins a line of one
+    solver = new TicTacToeRetrogradeSolver(2, 2, 1);
+    solver.solve();
+    assertEquals(4, solver.value(0, 0));
+  }
+
+  @Test
+  public void planAgainstAPerfectOpponentHasNoBlunders() {
+    TicTacToeRetrogradeSolver solver = new TicTacToeRetrogradeSolver(3, 3, 3);
+    solver.solve();
+    TicTacToeDenseQLearning agent =
+        new TicTacToeDenseQLearning(new TicTacToeExactPlanner(OpponentStrategies.PERFECT, 0.90).solve(), 0.90, 0.);
+    assertEquals(0, solver.countBlunders(agent, TicTacToeState.X_MARK));
+    assertEquals(0, solver.countBlunders(agent, TicTacToeState.O_MARK));
+
+    // An untrained agent plays the lowest numbered empty cell, which often throws the game away
+    TicTacToeDenseQLearning untrained = new TicTacToeDenseQLearning(0.90, 0., 0.);
+    assertTrue(solver.countBlunders(untrained, TicTacToeState.X_MARK) > 0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void valueBeforeSolveIsRejected() {
+    new TicTacToeRetrogradeSolver(3, 3, 3).value(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void oversizedBoardIsRejected() {
+    new TicTacToeRetrogradeSolver(4, 5, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void lineLongerThanTheBoardIsRejected() {
+    new TicTacToeRetrogradeSolver(3, 3, 4);
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package javafxpert.tictactoerl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author James L. Weaver (Twitter: @JavaFXpert)
+ */
+public class TicTacToeSymmetryTest {
+  @Test
+  public void transformsArePermutationsWithInverses() {
+    for (int t = 0; t < TicTacToeSymmetry.NUM_TRANSFORMS; t++) {
+      int image = 0;
+      for (int cell = 0; cell < TicTacToeState.NUM_CELLS; cell++) {
+        image |= 1 << TicTacToeSymmetry.mapCell(t, cell);
+        assertEquals(cell, TicTacToeSymmetry.unmapCell(t, TicTacToeSymmetry.mapCell(t, cell)));
+      }
+      assertEquals(TicTacToeBoard.FULL_MASK, image);
+
+      // The center stays put under every rotation and reflection
+      assertEquals(4, TicTacToeSymmetry.mapCell(t, 4));
+    }
+  }
+
+  @Test
+  public void transformsAreDistinctAndPreserveLines() {
+    for (int t = 0; t < TicTacToeSymmetry.NUM_TRANSFORMS; t++) {
+      for (int u = t + 1; u < TicTacToeSymmetry.NUM_TRANSFORMS; u++) {
+        assertTrue(TicTacToeSymmetry.mapMask(t, 0x023) != TicTacToeSymmetry.mapMask(u, 0x023));
+      }
+      for (int mask = 0; mask <= TicTacToeBoard.FULL_MASK; mask++) {
+        int image = TicTacToeSymmetry.mapMask(t, mask);
+        assertEquals(Integer.bitCount(mask), Integer.bitCount(image));
+        assertEquals(TicTacToeBoard.hasLine(mask), TicTacToeBoard.hasLine(image));
+      }
+    }
+  }
+
+  @Test
+  public void canonicalIndexIsTheLowestImageAndSharedByAllImages() {
+    for (int index = 0; index < TicTacToeBoard.NUM_POSITIONS; index++) {
+      int xMask = TicTacToePositionTable.xMask(index);
+      int oMask = TicTacToePositionTable.oMask(index);
+      int canonicalIndex = TicTacToeSymmetry.canonicalIndex(index);
+
+      int lowest = Integer.MAX_VALUE;
+      for (int t = 0; t < TicTacToeSymmetry.NUM_TRANSFORMS; t++) {
+        int image = TicTacToeBoard.index(TicTacToeSymmetry.mapMask(t, xMask), TicTacToeSymmetry.mapMask(t, oMask));
+        lowest = Math.min(lowest, image);
+        assertEquals(canonicalIndex, TicTacToeSymmetry.canonicalIndex(image));
+      }
+      assertEquals(lowest, canonicalIndex);
+
+      int transform = TicTacToeSymmetry.canonicalTransform(index);
+      assertEquals(canonicalIndex, TicTacToeBoard.index(
+          TicTacToeSymmetry.mapMask(transform, xMask), TicTacToeSymmetry.mapMask(transform, oMask)));
+      assertEquals(TicTacToePositionTable.status(index), TicTacToePositionTable.status(canonicalIndex));
+    }
+  }
+
+  @Test
+  public void mappedCellPlaysTheSameMoveOnTheCanonicalBoard() {
+    for (int index = 0; index < TicTacToeBoard.NUM_POSITIONS; index++) {
+      int xMask = TicTacToePositionTable.xMask(index);
+      int oMask = TicTacToePositionTable.oMask(index);
+      int transform = TicTacToeSymmetry.canonicalTransform(index);
+      for (int cells = TicTacToePositionTable.emptyMask(index); cells != 0; cells &= cells - 1) {
+        int cell = Integer.numberOfTrailingZeros(cells);
+        int canonicalCell = TicTacToeSymmetry.mapCell(transform, cell);
+        assertEquals(TicTacToeBoard.index(TicTacToeSymmetry.mapMask(transform, xMask | 1 << cell),
+            TicTacToeSymmetry.mapMask(transform, oMask)),
+            TicTacToeBoard.index(TicTacToeSymmetry.mapMask(transform, xMask) | 1 << canonicalCell,
+                TicTacToeSymmetry.mapMask(transform, oMask)));
+        assertEquals(cell, TicTacToeSymmetry.unmapCell(transform, canonicalCell));
+      }
+    }
+  }
+
+  @Test
+  public void canonicalStateOfACornerOpening() {
+    TicTacToeState corner = TicTacToeStateRegistry.state(1 << 8, 0, TicTacToeBoard.STATUS_IN_PROGRESS);
+    TicTacToeState canonical = TicTacToeSymmetry.canonicalState(corner);
+    assertEquals(1, canonical.xMask());
+    assertEquals(0, canonical.oMask());
+    assertEquals(TicTacToeBoard.STATUS_IN_PROGRESS, canonical.statusCode());
+  }
+}